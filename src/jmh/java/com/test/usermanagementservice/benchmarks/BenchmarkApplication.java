@@ -0,0 +1,19 @@
+package com.test.usermanagementservice.benchmarks;
+
+import com.test.usermanagementservice.UsermanagementserviceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// Boots the real application (in-memory H2, seeded admin/user) for benchmarks that need wired beans
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(UsermanagementserviceApplication.class)
+                .properties("server.port=0", "logging.level.root=WARN", "spring.main.banner-mode=off")
+                .properties(properties)
+                .run();
+    }
+}
@@ -0,0 +1,71 @@
+package com.test.usermanagementservice.benchmarks;
+
+import com.test.usermanagementservice.filters.JwtAuthenticationFilter;
+import com.test.usermanagementservice.util.JwtUtil;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// One authenticated request through JwtAuthenticationFilter, end to end, in both lookup modes, plus the
+// per-request cost of the filter on a public path (with a bearer token attached) and for a malformed token
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"false", "true"})
+    public boolean stateless;
+
+    private ConfigurableApplicationContext context;
+    private JwtAuthenticationFilter filter;
+    private String authorizationHeader;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start("jwt.stateless=" + stateless);
+        filter = context.getBean(JwtAuthenticationFilter.class);
+        authorizationHeader = "Bearer " + context.getBean(JwtUtil.class).generateToken("admin", "ROLE_ADMIN");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse doFilter() throws ServletException, IOException {
+        return filter("/api/users/1", authorizationHeader);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse publicPath() throws ServletException, IOException {
+        return filter("/v3/api-docs/swagger-config", authorizationHeader);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse malformedToken() throws ServletException, IOException {
+        return filter("/api/users/1", "Bearer not-a-jwt");
+    }
+
+    private MockHttpServletResponse filter(String path, String authorization) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.addHeader("Authorization", authorization);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+}
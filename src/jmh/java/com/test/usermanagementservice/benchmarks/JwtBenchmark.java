@@ -0,0 +1,87 @@
+package com.test.usermanagementservice.benchmarks;
+
+import com.test.usermanagementservice.security.JwtKeyRing;
+import com.test.usermanagementservice.util.JwtUtil;
+import com.test.usermanagementservice.util.TokenValidation;
+import com.test.usermanagementservice.util.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    // Same secret as JwtUtil, for the per-call parser baseline below
+    private static final String SECRET_KEY = "954hYQHv3qTi+FxsSosy7AITQfrbpqBgFGmXpyyqRvo=";
+    private static final Duration TTL = Duration.ofMinutes(15);
+    private static final Duration REFRESH_TTL = Duration.ofDays(7);
+
+    @Param({"HS256", "RS256", "ES256"})
+    public String algorithm;
+
+    private JwtUtil jwtUtil;
+    private String token;
+    private String hmacToken;
+    private String expiredToken;
+
+    @Setup
+    public void setUp() {
+        JwtKeyRing keyRing = new JwtKeyRing(algorithm, SECRET_KEY, Duration.ofDays(1));
+        jwtUtil = new JwtUtil(keyRing, TTL, REFRESH_TTL);
+        token = jwtUtil.generateToken("admin", "ROLE_ADMIN");
+        expiredToken = new JwtUtil(keyRing, Duration.ofMinutes(-1), REFRESH_TTL).generateToken("admin", "ROLE_ADMIN");
+        hmacToken = new JwtUtil(new JwtKeyRing("HS256", SECRET_KEY, Duration.ofDays(1)), TTL, REFRESH_TTL)
+                .generateToken("admin", "ROLE_ADMIN");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("admin", "ROLE_ADMIN");
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public VerifiedToken verify() {
+        return jwtUtil.verify(token);
+    }
+
+    // A correctly signed but expired token, as sent by every client still holding one after a deploy:
+    // verify() throws ExpiredJwtException (with its stack trace), validate() returns a shared constant
+    @Benchmark
+    public Object verifyExpired() {
+        try {
+            return jwtUtil.verify(expiredToken);
+        } catch (ExpiredJwtException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public TokenValidation validateExpired() {
+        return jwtUtil.validate(expiredToken);
+    }
+
+    // How JwtUtil used to parse: a new parser and a re-decoded key on every call.
+    // Compare gc.alloc.rate.norm against verify() with HS256 to see the per-request allocation saved.
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public Claims parserPerCall() {
+        return Jwts.parser()
+                .setSigningKey(SECRET_KEY)
+                .parseClaimsJws(hmacToken)
+                .getBody();
+    }
+}
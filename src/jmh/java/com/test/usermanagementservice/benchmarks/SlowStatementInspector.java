@@ -0,0 +1,24 @@
+package com.test.usermanagementservice.benchmarks;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Simulates a slow database for ThreadModeLoadTest: every SQL statement waits before it is prepared.
+// Repository calls run inside a transaction, so the connection is held for the whole delay.
+public class SlowStatementInspector implements StatementInspector {
+
+    static final String LATENCY_PROPERTY = "loadtest.db-latency-ms";
+
+    private final long latencyMillis = Long.getLong(LATENCY_PROPERTY, 0);
+
+    @Override
+    public String inspect(String sql) {
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,139 @@
+package com.test.usermanagementservice.benchmarks;
+
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Closed-loop load test of GET /api/users/{id} against a simulated slow database, once with
+// platform threads (Tomcat's 200-thread pool) and once with the vthreads profile settings.
+// Virtual threads need Java 21+; on older runtimes both runs use platform threads.
+//
+// ./mvnw -Pbenchmarks test-compile exec:exec \
+//     -Dbenchmark.main=com.test.usermanagementservice.benchmarks.ThreadModeLoadTest \
+//     -Dbenchmark.args="concurrency=400 duration=30 db-latency-ms=50"
+//
+// Load is generated in the same JVM, so compare the two runs with each other rather than as absolute numbers.
+public final class ThreadModeLoadTest {
+
+    private static final Pattern TOKEN = Pattern.compile("\"jwtToken\":\"([^\"]+)\"");
+
+    private record Result(String mode, long requests, long errors, double seconds, long[] latencies) {
+
+        long percentileMicros(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1000;
+        }
+    }
+
+    private ThreadModeLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(Map.of(
+                "concurrency", "400", "duration", "30", "warmup", "10", "db-latency-ms", "50", "pool-size", "400"));
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            options.put(option[0], option[1]);
+        }
+        System.setProperty(SlowStatementInspector.LATENCY_PROPERTY, options.get("db-latency-ms"));
+        if (Runtime.version().feature() < 21) {
+            System.out.println("Java " + Runtime.version().feature() + ": virtual threads need 21+, " +
+                    "the 'virtual' run below falls back to platform threads");
+        }
+
+        Result platform = run("platform", false, options);
+        Result virtual = run("virtual", true, options);
+
+        System.out.printf("%n%-10s %12s %10s %10s %10s %10s %8s%n",
+                "mode", "throughput/s", "p50 ms", "p90 ms", "p99 ms", "max ms", "errors");
+        for (Result result : new Result[]{platform, virtual}) {
+            System.out.printf("%-10s %12.0f %10.1f %10.1f %10.1f %10.1f %8d%n", result.mode(),
+                    result.requests() / result.seconds(), result.percentileMicros(50) / 1000.0,
+                    result.percentileMicros(90) / 1000.0, result.percentileMicros(99) / 1000.0,
+                    result.percentileMicros(100) / 1000.0, result.errors());
+        }
+        System.exit(0);
+    }
+
+    private static Result run(String mode, boolean virtualThreads, Map<String, String> options) throws Exception {
+        int poolSize = Integer.parseInt(options.get("pool-size"));
+        try (ConfigurableApplicationContext context = BenchmarkApplication.start(
+                "spring.threads.virtual.enabled=" + virtualThreads,
+                "spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "spring.datasource.hikari.connection-timeout=30000",
+                "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                        + SlowStatementInspector.class.getName())) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/users/1"))
+                    .header("Authorization", "Bearer " + login(client, port))
+                    .build();
+
+            int concurrency = Integer.parseInt(options.get("concurrency"));
+            drive(client, request, concurrency, Integer.parseInt(options.get("warmup")), null);
+            return drive(client, request, concurrency, Integer.parseInt(options.get("duration")), mode);
+        }
+    }
+
+    // Keeps `concurrency` requests in flight for the given number of seconds; records latencies when mode is set
+    private static Result drive(HttpClient client, HttpRequest request, int concurrency, int seconds, String mode)
+            throws InterruptedException {
+        Semaphore inFlight = new Semaphore(concurrency);
+        long[] latencies = new long[5_000_000];
+        AtomicInteger recorded = new AtomicInteger();
+        LongAdder errors = new LongAdder();
+        long start = System.nanoTime();
+        long end = start + Duration.ofSeconds(seconds).toNanos();
+
+        while (System.nanoTime() < end) {
+            inFlight.acquire();
+            long sent = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+                if (failure != null || response.statusCode() != 200) {
+                    errors.increment();
+                } else {
+                    int index = recorded.getAndIncrement();
+                    if (index < latencies.length) {
+                        latencies[index] = System.nanoTime() - sent;
+                    }
+                }
+                inFlight.release();
+            });
+        }
+        inFlight.acquire(concurrency);
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        long[] sorted = Arrays.copyOf(latencies, Math.min(recorded.get(), latencies.length));
+        Arrays.sort(sorted);
+        return new Result(mode, recorded.get(), errors.sum(), elapsed, sorted);
+    }
+
+    private static String login(HttpClient client, int port) throws Exception {
+        HttpRequest login = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"admin123\"}"))
+                .build();
+        String body = client.send(login, HttpResponse.BodyHandlers.ofString()).body();
+        Matcher matcher = TOKEN.matcher(body);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Login failed: " + body);
+        }
+        return matcher.group(1);
+    }
+}
@@ -1,5 +1,19 @@
 package com.test.usermanagementservice.DTOs;
 
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
 public class AppUserDTO {
 
+    Long id;
+    String username;
+    String email;
+    String role;
+
 }
@@ -0,0 +1,16 @@
+package com.test.usermanagementservice.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class AppUserPage {
+
+    List<AppUserDTO> users;
+    // Pass back as "after" to fetch the next page; null on the last page
+    Long nextCursor;
+
+}
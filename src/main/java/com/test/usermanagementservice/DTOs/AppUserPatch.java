@@ -0,0 +1,18 @@
+package com.test.usermanagementservice.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Fields left null are not changed
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppUserPatch {
+
+    String username;
+    String email;
+    String role;
+}
@@ -2,11 +2,17 @@ package com.test.usermanagementservice.DTOs;
 
 public class AuthResponse {
     String jwtToken;
+    String refreshToken;
 
     public AuthResponse(String token) {
         this.jwtToken = token;
     }
 
+    public AuthResponse(String token, String refreshToken) {
+        this.jwtToken = token;
+        this.refreshToken = refreshToken;
+    }
+
     public String getJwtToken() {
         return jwtToken;
     }
@@ -14,4 +20,12 @@ public class AuthResponse {
     public void setJwtToken(String jwtToken) {
         this.jwtToken = jwtToken;
     }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
 }
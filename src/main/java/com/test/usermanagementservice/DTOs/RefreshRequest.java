@@ -0,0 +1,15 @@
+package com.test.usermanagementservice.DTOs;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshRequest {
+
+    String refreshToken;
+}
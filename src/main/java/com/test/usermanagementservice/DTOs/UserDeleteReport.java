@@ -0,0 +1,21 @@
+package com.test.usermanagementservice.DTOs;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+public class UserDeleteReport {
+
+    long deleted;
+    List<Long> notFound = new ArrayList<>();
+
+    public void addDeleted(long count) {
+        deleted += count;
+    }
+
+    public void addNotFound(Long id) {
+        notFound.add(id);
+    }
+}
@@ -0,0 +1,31 @@
+package com.test.usermanagementservice.DTOs;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+public class UserImportReport {
+
+    // Caps the error list so a bad file cannot blow up the response; counts stay exact
+    private static final int MAX_ERRORS = 1000;
+
+    long imported;
+    long failed;
+    List<RowError> errors = new ArrayList<>();
+
+    public void addImported(long count) {
+        imported += count;
+    }
+
+    public void addError(long row, String username, String error) {
+        failed++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(row, username, error));
+        }
+    }
+
+    public record RowError(long row, String username, String error) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.test.usermanagementservice.DTOs;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// One user in a bulk import body; CSV files use these names as the header row
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonPropertyOrder({"username", "password", "email", "role"})
+public class UserImportRow {
+
+    String username;
+    String password;
+    String email;
+    String role;
+
+}
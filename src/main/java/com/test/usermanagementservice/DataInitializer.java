@@ -14,7 +14,7 @@ public class DataInitializer {
     @Bean
     CommandLineRunner init(UserRepository userRepository, PasswordEncoder passwordEncoder) {
         return args -> {
-            if (userRepository.findAll().isEmpty()) {
+            if (userRepository.count() == 0) {
                 userRepository.save(new AppUser( "admin", passwordEncoder.encode("admin123"), "ADMIN"));
                 userRepository.save(new AppUser("user", passwordEncoder.encode("user123"), "USER"));
             }
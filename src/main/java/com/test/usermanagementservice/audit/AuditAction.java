@@ -0,0 +1,8 @@
+package com.test.usermanagementservice.audit;
+
+public enum AuditAction {
+    USER_CREATED,
+    USER_UPDATED,
+    USER_DELETED,
+    LOGIN
+}
@@ -0,0 +1,8 @@
+package com.test.usermanagementservice.audit;
+
+import java.time.Instant;
+
+// An audit record waiting in the buffer; enqueuedNanos is System.nanoTime() at enqueue, for the lag metric
+public record AuditEvent(AuditAction action, String actor, String target, String outcome,
+                         Instant occurredAt, long enqueuedNanos) {
+}
@@ -0,0 +1,177 @@
+package com.test.usermanagementservice.audit;
+
+import com.test.usermanagementservice.models.AuditLogEntry;
+import com.test.usermanagementservice.service.AuditLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Records audit events off the request path. record() only puts the event in a bounded ring buffer; a single
+// flusher thread writes them to the audit_log table in one transaction per batch, once batchSize events are
+// waiting or the oldest has waited flushInterval. When the buffer is full the event is dropped (DROP) or the
+// caller waits up to maxWait for room (WAIT), so a slow database costs audit events, never request latency.
+@Component
+public class AuditLog {
+
+    public enum OverflowPolicy { DROP, WAIT }
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+    private static final long WAIT_STEP_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final AuditLogRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditRingBuffer<AuditEvent> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+    private final long maxWaitNanos;
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+    private final Timer lag;
+    private final Timer flushTime;
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    @Autowired
+    public AuditLog(AuditLogRepository repository, PlatformTransactionManager transactionManager,
+                    MeterRegistry meterRegistry,
+                    @Value("${users.audit.capacity:8192}") int capacity,
+                    @Value("${users.audit.batch-size:200}") int batchSize,
+                    @Value("${users.audit.flush-interval:PT1S}") Duration flushInterval,
+                    @Value("${users.audit.overflow:DROP}") OverflowPolicy overflowPolicy,
+                    @Value("${users.audit.max-wait:PT0.002S}") Duration maxWait) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.buffer = new AuditRingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.overflowPolicy = overflowPolicy;
+        this.maxWaitNanos = maxWait.toNanos();
+
+        Gauge.builder("audit.buffer.size", buffer, AuditRingBuffer::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+        this.written = counter(meterRegistry, "written");
+        this.dropped = counter(meterRegistry, "dropped");
+        this.failed = counter(meterRegistry, "failed");
+        this.lag = Timer.builder("audit.lag")
+                .description("Time from recording an audit event to its batch being committed")
+                .register(meterRegistry);
+        this.flushTime = Timer.builder("audit.flush").register(meterRegistry);
+
+        this.flusher = new Thread(this::flushLoop, "audit-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    public void record(AuditAction action, String actor, String target, String outcome) {
+        AuditEvent event = new AuditEvent(action, actor, target, outcome, Instant.now(), System.nanoTime());
+        if (!buffer.offer(event) && !(overflowPolicy == OverflowPolicy.WAIT && offerWithinMaxWait(event))) {
+            dropped.increment();
+            return;
+        }
+        if (buffer.size() >= batchSize) {
+            LockSupport.unpark(flusher);
+        }
+    }
+
+    // Writes what is still buffered before the repository goes away
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private boolean offerWithinMaxWait(AuditEvent event) {
+        long deadline = System.nanoTime() + maxWaitNanos;
+        do {
+            LockSupport.unpark(flusher);
+            LockSupport.parkNanos(WAIT_STEP_NANOS);
+            if (buffer.offer(event)) {
+                return true;
+            }
+        } while (System.nanoTime() - deadline < 0 && running);
+        return false;
+    }
+
+    private void flushLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (true) {
+            // Read before draining, so events recorded before close() are still written
+            boolean stopping = !running;
+            buffer.drainTo(batch, batchSize - batch.size());
+            if (batch.isEmpty()) {
+                if (stopping) {
+                    return;
+                }
+                LockSupport.parkNanos(this, flushIntervalNanos);
+                continue;
+            }
+            long waited = System.nanoTime() - batch.get(0).enqueuedNanos();
+            if (batch.size() >= batchSize || waited >= flushIntervalNanos || stopping) {
+                write(batch);
+                batch.clear();
+            } else {
+                LockSupport.parkNanos(this, flushIntervalNanos - waited);
+            }
+        }
+    }
+
+    private void write(List<AuditEvent> batch) {
+        long start = System.nanoTime();
+        try {
+            List<AuditLogEntry> entries = batch.stream().map(AuditLogEntry::new).toList();
+            transactionTemplate.executeWithoutResult(status -> repository.saveAll(entries));
+            recordWritten(batch);
+        } catch (RuntimeException e) {
+            log.warn("Failed to write a batch of {} audit events, retrying them one by one", batch.size(), e);
+            writeOneByOne(batch);
+        } finally {
+            flushTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // One transaction per event, so a bad row costs only itself and not the events batched with it
+    private void writeOneByOne(List<AuditEvent> batch) {
+        for (AuditEvent event : batch) {
+            try {
+                // A fresh entity: the ones from the rolled back batch already carry ids
+                transactionTemplate.executeWithoutResult(status -> repository.save(new AuditLogEntry(event)));
+                recordWritten(List.of(event));
+            } catch (RuntimeException e) {
+                failed.increment();
+                log.warn("Failed to write audit event {}", event.action(), e);
+            }
+        }
+    }
+
+    private void recordWritten(List<AuditEvent> events) {
+        long committed = System.nanoTime();
+        for (AuditEvent event : events) {
+            lag.record(committed - event.enqueuedNanos(), TimeUnit.NANOSECONDS);
+        }
+        written.increment(events.size());
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("audit.events").tag("result", result).register(meterRegistry);
+    }
+}
@@ -0,0 +1,72 @@
+package com.test.usermanagementservice.audit;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Bounded multi-producer, single-consumer queue. Producers claim a slot with a CAS on the tail and never
+// lock or allocate; a full buffer is reported to the caller instead of waiting. The element write publishes
+// the slot, so the consumer stops at a claimed slot that is still empty and picks it up on the next drain
+public final class AuditRingBuffer<E> {
+
+    private final AtomicReferenceArray<E> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // Written only by the consumer
+    private final AtomicLong head = new AtomicLong();
+
+    public AuditRingBuffer(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30: " + capacity);
+        }
+        // A power of two, so the slot index is a mask instead of a division
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(Math.max(size, 1));
+        this.mask = slots.length() - 1;
+    }
+
+    // Returns false when the buffer is full
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException();
+        }
+        long claimed;
+        do {
+            claimed = tail.get();
+            if (claimed - head.get() >= slots.length()) {
+                return false;
+            }
+        } while (!tail.compareAndSet(claimed, claimed + 1));
+        slots.lazySet((int) claimed & mask, element);
+        return true;
+    }
+
+    // Consumer only: moves up to max elements to the sink in offer order and returns how many
+    public int drainTo(Collection<? super E> sink, int max) {
+        long position = head.get();
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) position & mask;
+            E element = slots.get(index);
+            if (element == null) {
+                break;
+            }
+            slots.lazySet(index, null);
+            sink.add(element);
+            position++;
+            drained++;
+        }
+        // Ordered after the slot clears above, so a producer that sees the new head finds its slot empty
+        head.lazySet(position);
+        return drained;
+    }
+
+    public int size() {
+        long consumed = head.get();
+        return (int) Math.max(0, tail.get() - consumed);
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+}
@@ -0,0 +1,59 @@
+package com.test.usermanagementservice.cacheconfig;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+// Regions of the Hibernate second-level cache (JCache on Caffeine), created up front with explicit limits.
+// Region names match the @Cache/@NaturalIdCache annotations on AppUser; a missing region fails startup.
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String APP_USER_REGION = "appUser";
+    public static final String APP_USER_BY_USERNAME_REGION = "appUserByUsername";
+
+    // One cache manager per application context; a shared URI would let two contexts in one JVM
+    // (e.g. tests) read each other's entries
+    @Bean
+    public CacheManager hibernateCacheManager(
+            @Value("${users.second-level-cache.maximum-size:10000}") long entityMaximumSize,
+            @Value("${users.second-level-cache.time-to-live:PT10M}") Duration entityTimeToLive,
+            @Value("${users.query-cache.maximum-size:1000}") long queryMaximumSize,
+            @Value("${users.query-cache.time-to-live:PT5M}") Duration queryTimeToLive) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate:" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(APP_USER_REGION, region(entityMaximumSize, entityTimeToLive));
+        cacheManager.createCache(APP_USER_BY_USERNAME_REGION, region(entityMaximumSize, entityTimeToLive));
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                region(queryMaximumSize, queryTimeToLive));
+        // Last write time per table, used to discard stale query results. It must outlive the cached
+        // results, so it has no expiry; it holds one entry per table
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<>().setStoreByValue(false));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateSecondLevelCache(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maximumSize, Duration timeToLive) {
+        return new CaffeineConfiguration<>()
+                .setStoreByValue(false)
+                .setMaximumSize(OptionalLong.of(maximumSize))
+                .setExpireAfterWrite(OptionalLong.of(timeToLive.toNanos()));
+    }
+}
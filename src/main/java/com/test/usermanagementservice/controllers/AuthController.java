@@ -3,49 +3,117 @@ package com.test.usermanagementservice.controllers;
 
 import com.test.usermanagementservice.DTOs.AuthRequest;
 import com.test.usermanagementservice.DTOs.AuthResponse;
+import com.test.usermanagementservice.DTOs.RefreshRequest;
+import com.test.usermanagementservice.audit.AuditAction;
+import com.test.usermanagementservice.audit.AuditLog;
+import com.test.usermanagementservice.invalidation.InvalidationBus;
+import com.test.usermanagementservice.invalidation.InvalidationEvent;
+import com.test.usermanagementservice.security.AppUserDetails;
+import com.test.usermanagementservice.security.LoginThrottle;
+import com.test.usermanagementservice.security.TokenRevocationService;
+import com.test.usermanagementservice.service.CustomUserDetailsService;
 import com.test.usermanagementservice.util.JwtUtil;
+import com.test.usermanagementservice.util.TokenValidation;
+import com.test.usermanagementservice.util.VerifiedToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.concurrent.RejectedExecutionException;
+
 @Tag(name = "Authentication", description = "Endpoints for user authentication")
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthController.class);
+
     private final AuthenticationManager authenticationManager;
     private final JwtUtil jwtUtil;
+    private final CustomUserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+    private final LoginThrottle loginThrottle;
+    private final InvalidationBus invalidationBus;
+    private final AuditLog auditLog;
+    private final Counter loginSuccess;
+    private final Counter loginFailure;
+    private final Counter loginRejected;
+    private final Counter loginThrottled;
+    private final Counter refreshSuccess;
+    private final Counter refreshFailure;
 
-    public AuthController(AuthenticationManager authenticationManager, JwtUtil jwtUtil) {
+    public AuthController(AuthenticationManager authenticationManager, JwtUtil jwtUtil,
+                          CustomUserDetailsService userDetailsService,
+                          TokenRevocationService tokenRevocationService,
+                          LoginThrottle loginThrottle,
+                          InvalidationBus invalidationBus,
+                          AuditLog auditLog,
+                          MeterRegistry meterRegistry) {
         this.authenticationManager = authenticationManager;
         this.jwtUtil = jwtUtil;
+        this.userDetailsService = userDetailsService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.loginThrottle = loginThrottle;
+        this.invalidationBus = invalidationBus;
+        this.auditLog = auditLog;
+        this.loginSuccess = counter(meterRegistry, "auth.login", "success");
+        this.loginFailure = counter(meterRegistry, "auth.login", "invalid_credentials");
+        this.loginRejected = counter(meterRegistry, "auth.login", "rejected");
+        this.loginThrottled = counter(meterRegistry, "auth.login", "throttled");
+        this.refreshSuccess = counter(meterRegistry, "auth.refresh", "success");
+        this.refreshFailure = counter(meterRegistry, "auth.refresh", "invalid_token");
     }
 
     @Operation(
             summary = "Login a user",
-            description = "Authenticates a user and returns a JWT token",
+            description = "Authenticates a user and returns a short-lived access token and a refresh token",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Successful login",
                             content = @Content(mediaType = "application/json",
                                     schema = @Schema(implementation = AuthResponse.class))),
                     @ApiResponse(responseCode = "401", description = "Invalid credentials",
+                            content = @Content),
+                    @ApiResponse(responseCode = "429", description = "Too many login attempts for this user or " +
+                            "client, retry after the Retry-After seconds",
+                            content = @Content),
+                    @ApiResponse(responseCode = "503", description = "Too many concurrent logins, retry later",
                             content = @Content)
             }
     )
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody AuthRequest authRequest) {
+    public ResponseEntity<?> login(@RequestBody AuthRequest authRequest, HttpServletRequest request) {
+        // Checked before authenticate so throttled attempts never reach BCrypt.
+        // Behind a proxy, set server.forward-headers-strategy so the remote address is the client's
+        long retryAfterMillis = loginThrottle.tryAcquire(authRequest.getUsername(), request.getRemoteAddr());
+        if (retryAfterMillis > 0) {
+            loginThrottled.increment();
+            auditLogin(authRequest, request, "throttled");
+            log.debug("Throttled login for {} from {}", authRequest.getUsername(), request.getRemoteAddr());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf((retryAfterMillis + 999) / 1000))
+                    .body("Too many login attempts, retry later");
+        }
         try {
             Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(authRequest.getUsername(), authRequest.getPassword())
@@ -53,13 +121,115 @@ public class AuthController {
 
             String username = authentication.getName();
             String role = authentication.getAuthorities().stream().toList().get(0).toString();
-            System.out.println("Role: "+ role);
             String token = jwtUtil.generateToken(username, role);
-            System.out.println("token: " + token);
-            return ResponseEntity.ok(new AuthResponse(token));
+            loginThrottle.reset(username);
+            loginSuccess.increment();
+            auditLogin(authRequest, request, "success");
+            log.debug("Issued tokens for {} with role {}", username, role);
+            return ResponseEntity.ok(new AuthResponse(token,
+                    jwtUtil.generateRefreshToken(username, AppUserDetails.idOf(authentication.getPrincipal()))));
 
         } catch (AuthenticationException e) {
+            loginFailure.increment();
+            auditLogin(authRequest, request, "invalid_credentials");
+            log.debug("Login failed for {}: {}", authRequest.getUsername(), e.getMessage());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials");
+        } catch (RejectedExecutionException e) {
+            // Password hashing pool is saturated; fail fast rather than tie up this thread
+            loginRejected.increment();
+            auditLogin(authRequest, request, "rejected");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Too many concurrent logins, retry later");
+        }
+    }
+
+    @Operation(
+            summary = "Refresh an access token",
+            description = "Exchanges a refresh token for a new access token and a new refresh token. " +
+                    "Each refresh token can be used once",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "New token pair",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = AuthResponse.class))),
+                    @ApiResponse(responseCode = "401", description = "Invalid, expired or already used refresh token",
+                            content = @Content)
+            }
+    )
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshRequest refreshRequest) {
+        VerifiedToken refreshToken = verifyQuietly(refreshRequest.getRefreshToken());
+        // Revoking first makes the exchange single-use, even for concurrent requests with the same token
+        if (refreshToken == null || !refreshToken.isRefreshToken()
+                || !tokenRevocationService.revokeToken(refreshToken)) {
+            refreshFailure.increment();
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid refresh token");
+        }
+        publishRevoked(refreshToken);
+
+        UserDetails user;
+        try {
+            // Served from the user details cache, so no password check and usually no query
+            user = userDetailsService.loadUserByUsername(refreshToken.subject());
+        } catch (UsernameNotFoundException e) {
+            refreshFailure.increment();
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid refresh token");
+        }
+        // The username may have been freed by a delete or rename and taken by a new account since
+        Long userId = AppUserDetails.idOf(user);
+        if (userId == null || !userId.equals(refreshToken.userId())) {
+            refreshFailure.increment();
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid refresh token");
+        }
+        refreshSuccess.increment();
+        String role = user.getAuthorities().stream().toList().get(0).toString();
+        return ResponseEntity.ok(new AuthResponse(jwtUtil.generateToken(user.getUsername(), role),
+                jwtUtil.generateRefreshToken(user.getUsername(), userId)));
+    }
+
+    @Operation(
+            summary = "Logout",
+            description = "Revokes the given refresh token and the bearer access token, if present",
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Tokens revoked")
+            }
+    )
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody(required = false) RefreshRequest refreshRequest,
+                                       @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false)
+                                       String authorizationHeader) {
+        if (refreshRequest != null) {
+            VerifiedToken refreshToken = verifyQuietly(refreshRequest.getRefreshToken());
+            if (refreshToken != null && tokenRevocationService.revokeToken(refreshToken)) {
+                publishRevoked(refreshToken);
+            }
+        }
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
+            VerifiedToken accessToken = verifyQuietly(authorizationHeader.substring(7));
+            if (accessToken != null && tokenRevocationService.revokeToken(accessToken)) {
+                publishRevoked(accessToken);
+            }
         }
+        return ResponseEntity.noContent().build();
+    }
+
+    private void auditLogin(AuthRequest authRequest, HttpServletRequest request, String outcome) {
+        auditLog.record(AuditAction.LOGIN, authRequest.getUsername(), request.getRemoteAddr(), outcome);
+    }
+
+    private void publishRevoked(VerifiedToken token) {
+        invalidationBus.publish(new InvalidationEvent.TokenRevoked(token.id(), token.expiresAt().getTime()));
+    }
+
+    private VerifiedToken verifyQuietly(String token) {
+        if (token == null) {
+            return null;
+        }
+        TokenValidation validation = jwtUtil.validate(token);
+        return validation.isValid() ? validation.token() : null;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String outcome) {
+        return Counter.builder(name).tag("outcome", outcome).register(meterRegistry);
     }
 }
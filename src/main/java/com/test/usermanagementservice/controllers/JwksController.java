@@ -0,0 +1,47 @@
+package com.test.usermanagementservice.controllers;
+
+import com.test.usermanagementservice.security.JwtKeyRing;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+
+@Tag(name = "Authentication", description = "Endpoints for user authentication")
+@RestController
+public class JwksController {
+
+    private final JwtKeyRing keyRing;
+    private final CacheControl cacheControl;
+
+    public JwksController(JwtKeyRing keyRing, @Value("${jwt.jwks.max-age:PT1H}") Duration maxAge) {
+        this.keyRing = keyRing;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    @Operation(
+            summary = "Public signing keys",
+            description = "Returns the JSON Web Key Set used to verify issued tokens. Empty when tokens are HS256 signed",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Current key set"),
+                    @ApiResponse(responseCode = "304", description = "Key set unchanged since the given ETag")
+            }
+    )
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> jwks(WebRequest request) {
+        // Serialized once per rotation; conditional requests are answered without a body
+        JwtKeyRing.Jwks jwks = keyRing.jwks();
+        if (request.checkNotModified(jwks.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).eTag(jwks.etag()).build();
+        }
+        return ResponseEntity.ok().cacheControl(cacheControl).eTag(jwks.etag()).body(jwks.json());
+    }
+}
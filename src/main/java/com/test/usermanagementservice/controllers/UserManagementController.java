@@ -1,6 +1,19 @@
 package com.test.usermanagementservice.controllers;
 
+import com.test.usermanagementservice.DTOs.AppUserDTO;
+import com.test.usermanagementservice.DTOs.AppUserPage;
+import com.test.usermanagementservice.DTOs.AppUserPatch;
+import com.test.usermanagementservice.DTOs.UserDeleteReport;
+import com.test.usermanagementservice.DTOs.UserImportReport;
+import com.test.usermanagementservice.audit.AuditAction;
+import com.test.usermanagementservice.audit.AuditLog;
+import com.test.usermanagementservice.invalidation.InvalidationBus;
+import com.test.usermanagementservice.invalidation.InvalidationEvent.UserChanged;
 import com.test.usermanagementservice.models.AppUser;
+import com.test.usermanagementservice.security.TokenRevocationService;
+import com.test.usermanagementservice.service.CustomUserDetailsService;
+import com.test.usermanagementservice.service.UserExportService;
+import com.test.usermanagementservice.service.UserImportService;
 import com.test.usermanagementservice.service.UserRepository;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -9,28 +22,68 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Tag(name = "User Management Controller", description = "Endpoints for user apis\n The apis requires Authorization header and jwt token of an already authenticated user(e.g admin)")
 @RestController
 @RequestMapping("/api/users")
 public class UserManagementController {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_DELETE_IDS = 10_000;
+    // Ids per SELECT/DELETE pair; keeps IN lists under common database limits
+    private static final int DELETE_CHUNK_SIZE = 1000;
+    // Stands in for an If-Match value that is not one of our ETags, so it never matches a version
+    private static final long UNMATCHABLE_VERSION = -1L;
+
     @Autowired
     private final UserRepository userRepository;
-    public final BCryptPasswordEncoder passwordEncoder;
+    public final PasswordEncoder passwordEncoder;
+    private final TokenRevocationService tokenRevocationService;
+    private final CustomUserDetailsService userDetailsService;
+    private final UserExportService userExportService;
+    private final UserImportService userImportService;
+    private final InvalidationBus invalidationBus;
+    private final AuditLog auditLog;
 
-    public UserManagementController(UserRepository userRepository, BCryptPasswordEncoder passwordEncoder) {
+    public UserManagementController(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                                    TokenRevocationService tokenRevocationService,
+                                    CustomUserDetailsService userDetailsService,
+                                    UserExportService userExportService,
+                                    UserImportService userImportService,
+                                    InvalidationBus invalidationBus,
+                                    AuditLog auditLog) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.tokenRevocationService = tokenRevocationService;
+        this.userDetailsService = userDetailsService;
+        this.userExportService = userExportService;
+        this.userImportService = userImportService;
+        this.invalidationBus = invalidationBus;
+        this.auditLog = auditLog;
     }
 
     // Create User
@@ -46,7 +99,8 @@ public class UserManagementController {
                             mediaType = "application/json",
                             schema = @Schema(implementation = AppUser.class))),
             @ApiResponse(responseCode = "400", description = "Invalid input"),
-            @ApiResponse(responseCode = "401", description = "Invalid or missing JWT token")
+            @ApiResponse(responseCode = "401", description = "Invalid or missing JWT token"),
+            @ApiResponse(responseCode = "409", description = "Username or email already in use")
     })
     @SecurityRequirement(name = "bearerAuth")
     @PostMapping
@@ -56,10 +110,47 @@ public class UserManagementController {
         }
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         user.setCreatedAt(Timestamp.from(Instant.now()));
-        return ResponseEntity.ok(userRepository.save(user));
+        AppUser savedUser;
+        try {
+            savedUser = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Username or email already in use");
+        }
+        userDetailsService.evictUser(savedUser.getUsername());
+        invalidationBus.publish(new UserChanged(savedUser.getId(), savedUser.getUsername(), null));
+        audit(AuditAction.USER_CREATED, savedUser.getId());
+        return ResponseEntity.ok(savedUser);
        
     }
 
+    // Import Users
+    @Operation(
+            summary = "Bulk import users",
+            description = "Creates users from a streamed body: a JSON array, newline-delimited JSON, or CSV with a " +
+                    "username,password,email,role header. Returns how many rows were imported and why the rest failed"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import finished, see the per-row errors",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = UserImportReport.class))),
+            @ApiResponse(responseCode = "401", description = "Invalid or missing JWT token")
+    })
+    @PostMapping(value = "/import",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    public ResponseEntity<UserImportReport> importUsers(HttpServletRequest request) throws IOException {
+        // Read the body as a stream rather than binding it, so large files are never held in memory
+        UserImportService.Format format = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? UserImportService.Format.CSV : UserImportService.Format.JSON;
+        UserImportReport report = userImportService.importUsers(request.getInputStream(), format);
+        if (report.getImported() > 0) {
+            // Which users were added is not tracked, so other nodes drop everything they cached for users
+            invalidationBus.publish(new UserChanged(null, null, null));
+        }
+        return ResponseEntity.ok(report);
+    }
+
     // Retrieve User
     @Operation(
             summary = "Retrieve user by ID",
@@ -76,37 +167,192 @@ public class UserManagementController {
     @GetMapping("/{id}")
     public ResponseEntity<AppUser> getUser(@PathVariable Long id) {
         Optional<AppUser> user = userRepository.findById(id);
-        return user.map(ResponseEntity::ok)
+        return user.map(u -> ResponseEntity.ok().eTag(etag(u.getVersion())).body(u))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    // List Users
+    @Operation(
+            summary = "List users",
+            description = "Returns users ordered by id, one page at a time. Pass the returned nextCursor as 'after' " +
+                    "to get the next page. Optional filters: role, username prefix and email domain"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of users",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = AppUserPage.class))),
+            @ApiResponse(responseCode = "401", description = "Invalid or missing JWT token")
+    })
+    @GetMapping
+    public ResponseEntity<AppUserPage> listUsers(@RequestParam(required = false) Long after,
+                                                 @RequestParam(defaultValue = "20") int limit,
+                                                 @RequestParam(required = false) String role,
+                                                 @RequestParam(required = false) String usernamePrefix,
+                                                 @RequestParam(required = false) String emailDomain) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        List<AppUserDTO> users = userRepository.findPage(
+                after == null ? 0L : after,
+                role,
+                usernamePrefix == null ? null : escapeLike(usernamePrefix) + "%",
+                emailDomain,
+                Limit.of(pageSize + 1));
+
+        Long nextCursor = null;
+        if (users.size() > pageSize) {
+            users = users.subList(0, pageSize);
+            nextCursor = users.get(pageSize - 1).getId();
+        }
+        return ResponseEntity.ok(new AppUserPage(users, nextCursor));
+    }
+
+    // Export Users
+    @Operation(
+            summary = "Export all users",
+            description = "Streams every user as newline-delimited JSON, one object per line, in id order"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export stream",
+                    content = @Content(
+                            mediaType = "application/x-ndjson",
+                            schema = @Schema(implementation = AppUserDTO.class))),
+            @ApiResponse(responseCode = "401", description = "Invalid or missing JWT token")
+    })
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        // Runs on the async executor, so no request thread is held for the length of the export
+        StreamingResponseBody body = userExportService::exportTo;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.ndjson\"")
+                .body(body);
+    }
+
     // Update User
     @Operation(
             summary = "Update an existing user",
-            description = "Updates the user information for the given user ID"
+            description = "Replaces the username, email and role of the given user. Send the ETag from GET as " +
+                    "If-Match to fail with 412 instead of overwriting someone else's change"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User successfully updated",
                     content = @Content(
                             mediaType = "application/json",
                             schema = @Schema(implementation = AppUser.class))),
+            @ApiResponse(responseCode = "400", description = "Username, email or role missing"),
             @ApiResponse(responseCode = "404", description = "User not found"),
-            @ApiResponse(responseCode = "401", description = "Invalid or missing JWT token")
+            @ApiResponse(responseCode = "401", description = "Invalid or missing JWT token"),
+            @ApiResponse(responseCode = "409", description = "Username or email already in use"),
+            @ApiResponse(responseCode = "412", description = "User was changed since the If-Match version")
     })
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateUser(@PathVariable Long id, @RequestBody AppUser updatedUser) {
+    public ResponseEntity<?> updateUser(@PathVariable Long id, @RequestBody AppUser updatedUser,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                        String ifMatch) {
+        if (updatedUser.getUsername() == null || updatedUser.getEmail() == null || updatedUser.getRole() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        Long expectedVersion = ifMatchVersion(ifMatch);
         return userRepository.findById(id)
                 .map(user -> {
+                    if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+                        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+                    }
+                    String previousUsername = user.getUsername();
+                    long revokedBefore = tokenRevocationService.currentMark();
                     user.setUsername(updatedUser.getUsername());
                     user.setEmail(updatedUser.getEmail());
                     user.setRole(updatedUser.getRole());
                     user.setUpdatedAt(Timestamp.from(Instant.now()));
-                    userRepository.save(user);
-                    return ResponseEntity.ok(user);
+                    AppUser savedUser;
+                    try {
+                        savedUser = userRepository.save(user);
+                    } catch (ObjectOptimisticLockingFailureException e) {
+                        // Changed by someone else between our read and write
+                        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+                    } catch (DataIntegrityViolationException e) {
+                        return ResponseEntity.status(HttpStatus.CONFLICT).body("Username or email already in use");
+                    }
+                    // Tokens carry the old username and role, so cut them off now that the change is saved
+                    tokenRevocationService.revokeUser(previousUsername, revokedBefore);
+                    userDetailsService.evictUser(previousUsername);
+                    userDetailsService.evictUser(savedUser.getUsername());
+                    invalidationBus.publish(new UserChanged(id, previousUsername, revokedBefore));
+                    audit(AuditAction.USER_UPDATED, id);
+                    return ResponseEntity.ok().eTag(etag(savedUser.getVersion())).body(savedUser);
                 })
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    // Patch User
+    @Operation(
+            summary = "Partially update a user",
+            description = "Changes only the username, email and role fields present in the body, in a single " +
+                    "UPDATE without reading the user first. With If-Match the update only applies to that version"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "User updated; ETag is the new version when " +
+                    "If-Match was sent"),
+            @ApiResponse(responseCode = "400", description = "No field to change"),
+            @ApiResponse(responseCode = "404", description = "User not found"),
+            @ApiResponse(responseCode = "401", description = "Invalid or missing JWT token"),
+            @ApiResponse(responseCode = "409", description = "Username or email already in use"),
+            @ApiResponse(responseCode = "412", description = "User was changed since the If-Match version")
+    })
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patchUser(@PathVariable Long id, @RequestBody AppUserPatch patch,
+                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false)
+                                       String ifMatch) {
+        if (patch.getUsername() == null && patch.getEmail() == null && patch.getRole() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        Long expectedVersion = ifMatchVersion(ifMatch);
+
+        // Tokens and cached user details are keyed by username, so only a username or role change
+        // needs the current one; an email change stays a single statement
+        String previousUsername = null;
+        Long revokedBefore = null;
+        if (patch.getUsername() != null || patch.getRole() != null) {
+            Optional<String> currentUsername = userRepository.findUsernameById(id);
+            if (currentUsername.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            previousUsername = currentUsername.get();
+            revokedBefore = tokenRevocationService.currentMark();
+        }
+
+        int updated;
+        try {
+            updated = userRepository.patch(id, patch.getUsername(), patch.getEmail(), patch.getRole(),
+                    Timestamp.from(Instant.now()), expectedVersion);
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Username or email already in use");
+        }
+        if (updated == 0) {
+            // Only on this path: tell a stale version apart from a missing user
+            return userRepository.existsById(id)
+                    ? ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build()
+                    : ResponseEntity.notFound().build();
+        }
+
+        if (previousUsername != null) {
+            // Only revoke once the update went through; a 404, 409 or 412 leaves tokens alone
+            tokenRevocationService.revokeUser(previousUsername, revokedBefore);
+            userDetailsService.evictUser(previousUsername);
+        }
+        if (patch.getUsername() != null) {
+            userDetailsService.evictUser(patch.getUsername());
+        }
+        invalidationBus.publish(new UserChanged(id, previousUsername, revokedBefore));
+        audit(AuditAction.USER_UPDATED, id);
+        ResponseEntity.HeadersBuilder<?> response = ResponseEntity.noContent();
+        if (expectedVersion != null) {
+            response.eTag(etag(expectedVersion + 1));
+        }
+        return response.build();
+    }
+
     // Delete User
     @Operation(
             summary = "Delete a user by ID",
@@ -123,11 +369,84 @@ public class UserManagementController {
     })
     @DeleteMapping("/{id}")
     public ResponseEntity<String> deleteUser(@PathVariable Long id) {
-        if (userRepository.existsById(id)) {
-            userRepository.deleteById(id);
-            return ResponseEntity.ok("User Deleted");
+        // The username is needed to revoke tokens and evict cached details; the delete itself does not load the entity
+        Optional<String> username = userRepository.findUsernameById(id);
+        if (username.isEmpty() || userRepository.deleteUserById(id) == 0) {
+            return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.notFound().build();
+        long revokedBefore = tokenRevocationService.revokeUser(username.get());
+        userDetailsService.evictUser(username.get());
+        invalidationBus.publish(new UserChanged(id, username.get(), revokedBefore));
+        audit(AuditAction.USER_DELETED, id);
+        return ResponseEntity.ok("User Deleted");
     }
-}
 
+    // Delete Users
+    @Operation(
+            summary = "Delete many users",
+            description = "Deletes the users with the ids in the body (a JSON array, at most " + MAX_DELETE_IDS +
+                    " ids) and reports how many were deleted and which ids did not exist"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Users deleted",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = UserDeleteReport.class))),
+            @ApiResponse(responseCode = "400", description = "No ids or too many ids"),
+            @ApiResponse(responseCode = "401", description = "Invalid or missing JWT token")
+    })
+    @DeleteMapping
+    public ResponseEntity<UserDeleteReport> deleteUsers(@RequestBody List<Long> ids) {
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        if (distinctIds.isEmpty() || distinctIds.size() > MAX_DELETE_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        UserDeleteReport report = new UserDeleteReport();
+        // Two statements per chunk rather than a round trip per user
+        for (int from = 0; from < distinctIds.size(); from += DELETE_CHUNK_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + DELETE_CHUNK_SIZE, distinctIds.size()));
+            List<AppUserDTO> users = userRepository.findAllDtosById(chunk);
+            report.addDeleted(userRepository.deleteUsersById(chunk));
+
+            Set<Long> found = new HashSet<>();
+            for (AppUserDTO user : users) {
+                found.add(user.getId());
+                long revokedBefore = tokenRevocationService.revokeUser(user.getUsername());
+                userDetailsService.evictUser(user.getUsername());
+                invalidationBus.publish(new UserChanged(user.getId(), user.getUsername(), revokedBefore));
+                audit(AuditAction.USER_DELETED, user.getId());
+            }
+            chunk.stream().filter(id -> !found.contains(id)).forEach(report::addNotFound);
+        }
+        return ResponseEntity.ok(report);
+    }
+
+    private void audit(AuditAction action, Long userId) {
+        Authentication caller = SecurityContextHolder.getContext().getAuthentication();
+        auditLog.record(action, caller == null ? null : caller.getName(), String.valueOf(userId), "success");
+    }
+
+    private static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // The version an If-Match header asks for, or null when there is no precondition
+    private static Long ifMatchVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.length() < 2 || !value.startsWith("\"") || !value.endsWith("\"")) {
+            return UNMATCHABLE_VERSION;
+        }
+        try {
+            return Long.parseLong(value.substring(1, value.length() - 1));
+        } catch (NumberFormatException e) {
+            return UNMATCHABLE_VERSION;
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
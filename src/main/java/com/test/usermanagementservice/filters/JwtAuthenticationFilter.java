@@ -1,37 +1,119 @@
 package com.test.usermanagementservice.filters;
 
 
+import com.test.usermanagementservice.security.TokenRevocationService;
+import com.test.usermanagementservice.security.VerifiedTokenCache;
 import com.test.usermanagementservice.service.CustomUserDetailsService;
 import com.test.usermanagementservice.util.JwtUtil;
-import io.jsonwebtoken.MalformedJwtException;
+import com.test.usermanagementservice.util.TokenValidation;
+import com.test.usermanagementservice.util.VerifiedToken;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+    // Permitted without a token by SecurityConfig; requests to them skip this filter entirely
+    public static final List<String> PUBLIC_PATHS = List.of(
+            "/api/auth/login", "/api/auth/refresh", "/api/auth/logout",
+            "/h2-console/**", "/swagger-ui.html", "/swagger-ui/**", "/v3/api-docs/**", "/.well-known/jwks.json",
+            "/actuator/health");
+    // Parsed once at startup, so matching a request is a walk over path segments
+    private static final List<PathPattern> PUBLIC_PATH_PATTERNS = PUBLIC_PATHS.stream()
+            .map(PathPatternParser.defaultInstance::parse)
+            .toList();
+    private static final byte[] MISSING_TOKEN_BODY = errorBody("Unauthorized - Invalid or missing JWT token");
+
     private final JwtUtil jwtUtil;
     private final UserDetailsService userDetailsService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final boolean stateless;
+    private final MeterRegistry meterRegistry;
+    // jwt.verify times signature checks, so only verified-token cache misses; jwt.authentication counts every bearer request
+    private final Map<TokenValidation.Status, Timer> verifyTimers = new EnumMap<>(TokenValidation.Status.class);
+    private final Counter authenticated;
+    private final Map<TokenValidation.Status, Rejection> invalidTokenRejections =
+            new EnumMap<>(TokenValidation.Status.class);
+    private final Rejection revokedRejection;
+    private final Rejection refreshTokenRejection;
 
     @Autowired
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService,
+                                   VerifiedTokenCache verifiedTokenCache,
+                                   TokenRevocationService tokenRevocationService,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${jwt.stateless:false}") boolean stateless) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocationService = tokenRevocationService;
+        this.stateless = stateless;
+        this.meterRegistry = meterRegistry;
+        for (TokenValidation.Status status : TokenValidation.Status.values()) {
+            verifyTimers.put(status, verifyTimer(status.name().toLowerCase(Locale.ROOT)));
+        }
+        this.authenticated = authenticationCounter("authenticated");
+        invalidTokenRejections.put(TokenValidation.Status.EXPIRED,
+                rejection("expired", "Unauthorized - JWT token expired", "The token expired"));
+        invalidTokenRejections.put(TokenValidation.Status.BAD_SIGNATURE,
+                rejection("bad_signature", "Unauthorized - Invalid JWT signature", "The token signature is invalid"));
+        // Same body as a missing token, as before
+        invalidTokenRejections.put(TokenValidation.Status.MALFORMED,
+                rejection("malformed", "Unauthorized - Invalid or missing JWT token", "The token is malformed"));
+        this.revokedRejection = rejection("revoked", "Unauthorized - JWT token revoked", "The token was revoked");
+        this.refreshTokenRejection = rejection("refresh_token", "Unauthorized - Refresh token used as access token",
+                "Refresh tokens are only accepted by /api/auth/refresh");
     }
 
 
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        PathContainer path = RequestPath.parse(request.getRequestURI(), request.getContextPath())
+                .pathWithinApplication();
+        for (PathPattern pattern : PUBLIC_PATH_PATTERNS) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException {
@@ -39,31 +121,101 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
 
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            try{
-                String token = authorizationHeader.substring(7);
-                String username = jwtUtil.extractUsername(token);
-
-                System.out.println("extracted username: "+ username);
-                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String token = authorizationHeader.substring(7);
+            TokenValidation validation = verifiedTokenCache.validate(token, this::validate);
+            if (!validation.isValid()) {
+                log.debug("Rejected token: {}", validation.status());
+                reject(response, invalidTokenRejections.get(validation.status()));
+                return;
+            }
+            VerifiedToken verifiedToken = validation.token();
+            String username = verifiedToken.subject();
+
+            // Refresh tokens are only accepted by /api/auth/refresh. Logged-out token ids are always
+            // checked; per-user marks only in stateless mode, where roles are not reloaded
+            if (verifiedToken.isRefreshToken()) {
+                log.debug("Rejected refresh token used as access token for {}", username);
+                reject(response, refreshTokenRejection);
+                return;
+            }
+            if (stateless
+                    ? tokenRevocationService.isRevoked(verifiedToken)
+                    : tokenRevocationService.isTokenRevoked(verifiedToken)) {
+                log.debug("Rejected revoked token for {}", username);
+                reject(response, revokedRejection);
+                return;
+            }
+            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                UsernamePasswordAuthenticationToken authToken;
+                if (stateless) {
+                    // Trust the signed role claim
+                    authToken = new UsernamePasswordAuthenticationToken(
+                            username, null, authoritiesFrom(verifiedToken));
+                } else {
                     UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    authToken = new UsernamePasswordAuthenticationToken(
+                            userDetails.getUsername(), null, userDetails.getAuthorities());
+                }
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+                authenticated.increment();
+                log.trace("Authenticated {} from bearer token", username);
+            }
+        }
+        chain.doFilter(request, response);
+    }
 
-                    System.out.println("DB username: "+ userDetails.getUsername());
+    private TokenValidation validate(String token) {
+        long start = System.nanoTime();
+        TokenValidation validation = jwtUtil.validate(token);
+        verifyTimers.get(validation.status()).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return validation;
+    }
 
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails.getUsername(), null, userDetails.getAuthorities());
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+    private Rejection rejection(String outcome, String message, String description) {
+        return new Rejection(errorBody(message),
+                "Bearer error=\"invalid_token\", error_description=\"" + description + "\"",
+                authenticationCounter(outcome));
+    }
 
-                }
-            } catch (MalformedJwtException e) {
-                System.out.println("Error in jwt hhh");
-                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED); // 401
-                response.setContentType("application/json");
-                response.getWriter().write("{\"error\": \"Unauthorized - Invalid or missing JWT token\"}");
+    private Timer verifyTimer(String outcome) {
+        return Timer.builder("jwt.verify").tag("outcome", outcome).register(meterRegistry);
+    }
 
-                return;
-            }
+    private Counter authenticationCounter(String outcome) {
+        return Counter.builder("jwt.authentication").tag("outcome", outcome).register(meterRegistry);
+    }
 
+    // The role claim already carries the ROLE_ prefix (see AuthController.login)
+    private static Collection<? extends GrantedAuthority> authoritiesFrom(VerifiedToken token) {
+        if (token.role() == null) {
+            return Collections.emptyList();
         }
-        chain.doFilter(request, response);
+        return List.of(new SimpleGrantedAuthority(token.role()));
+    }
+
+    // Also the security chain's entry point for requests without a token (see SecurityConfig)
+    public static void writeUnauthorized(HttpServletResponse response) throws IOException {
+        write(response, MISSING_TOKEN_BODY, "Bearer");
+    }
+
+    private static void reject(HttpServletResponse response, Rejection rejection) throws IOException {
+        rejection.counter().increment();
+        write(response, rejection.body(), rejection.challenge());
+    }
+
+    private static void write(HttpServletResponse response, byte[] body, String challenge) throws IOException {
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED); // 401
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, challenge);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static byte[] errorBody(String message) {
+        return ("{\"error\": \"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    // A preallocated 401 for one way of refusing a bearer token, with its RFC 6750 challenge
+    private record Rejection(byte[] body, String challenge, Counter counter) {
     }
 }
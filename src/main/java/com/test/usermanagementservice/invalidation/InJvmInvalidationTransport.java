@@ -0,0 +1,69 @@
+package com.test.usermanagementservice.invalidation;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+// Connects every application context in this JVM. Each node receives on its own single thread, so a
+// slow handler delays only that node and the sender never blocks
+@Component
+@ConditionalOnProperty(name = "users.invalidation.transport", havingValue = "in-jvm", matchIfMissing = true)
+public class InJvmInvalidationTransport implements InvalidationTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(InJvmInvalidationTransport.class);
+    private static final List<InJvmInvalidationTransport> NODES = new CopyOnWriteArrayList<>();
+
+    private final ExecutorService inbox = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "invalidation-inbox");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final List<Consumer<InvalidationEvent>> handlers = new CopyOnWriteArrayList<>();
+
+    public InJvmInvalidationTransport() {
+        NODES.add(this);
+    }
+
+    @Override
+    public void send(InvalidationEvent event) {
+        for (InJvmInvalidationTransport node : NODES) {
+            if (node != this) {
+                node.deliver(event);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationEvent> handler) {
+        handlers.add(handler);
+    }
+
+    @PreDestroy
+    public void close() {
+        NODES.remove(this);
+        inbox.shutdown();
+    }
+
+    private void deliver(InvalidationEvent event) {
+        try {
+            inbox.execute(() -> handlers.forEach(handler -> {
+                try {
+                    handler.accept(event);
+                } catch (RuntimeException e) {
+                    log.warn("Failed to apply {}", event, e);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            // The receiving context is shutting down
+        }
+    }
+}
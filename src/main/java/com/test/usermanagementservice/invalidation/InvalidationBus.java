@@ -0,0 +1,70 @@
+package com.test.usermanagementservice.invalidation;
+
+import com.test.usermanagementservice.models.AppUser;
+import com.test.usermanagementservice.security.TokenRevocationService;
+import com.test.usermanagementservice.service.CustomUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+// Keeps the per-node caches of several replicas coherent. The node making a change updates its own caches
+// as before and publishes what changed; the other nodes drop the same entries from theirs:
+// cached user details, token revocation marks and ids, and the Hibernate second-level cache
+@Component
+public class InvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidationBus.class);
+
+    private final InvalidationTransport transport;
+    private final CustomUserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+    private final Cache secondLevelCache;
+    private final MeterRegistry meterRegistry;
+
+    public InvalidationBus(InvalidationTransport transport, CustomUserDetailsService userDetailsService,
+                           TokenRevocationService tokenRevocationService,
+                           EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        this.transport = transport;
+        this.userDetailsService = userDetailsService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.secondLevelCache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        this.meterRegistry = meterRegistry;
+        transport.subscribe(this::apply);
+    }
+
+    // Tells the other nodes about a change already applied to this node's caches
+    public void publish(InvalidationEvent event) {
+        count("sent", event);
+        transport.send(event);
+    }
+
+    private void apply(InvalidationEvent event) {
+        log.debug("Applying {} from another node", event);
+        if (event instanceof InvalidationEvent.UserChanged user) {
+            if (user.tokensIssuedBefore() != null) {
+                tokenRevocationService.revokeUser(user.username(), user.tokensIssuedBefore());
+            }
+            userDetailsService.evictUser(user.username());
+            // The write went through another node's Hibernate session, so this node's regions never saw it
+            if (user.userId() != null) {
+                secondLevelCache.evictEntityData(AppUser.class, user.userId());
+            } else {
+                secondLevelCache.evictEntityData(AppUser.class);
+            }
+            secondLevelCache.evictNaturalIdData(AppUser.class);
+            secondLevelCache.evictDefaultQueryRegion();
+        } else if (event instanceof InvalidationEvent.TokenRevoked token) {
+            tokenRevocationService.revokeTokenId(token.tokenId(), token.expiresAt());
+        }
+        count("received", event);
+    }
+
+    private void count(String direction, InvalidationEvent event) {
+        String type = event instanceof InvalidationEvent.UserChanged ? "user_changed" : "token_revoked";
+        meterRegistry.counter("invalidation.events", "direction", direction, "type", type).increment();
+    }
+}
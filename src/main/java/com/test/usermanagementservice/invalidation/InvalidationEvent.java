@@ -0,0 +1,14 @@
+package com.test.usermanagementservice.invalidation;
+
+// What other nodes must drop from their local caches after a change made on this node
+public sealed interface InvalidationEvent {
+
+    // A user was created, changed or deleted. userId and username are null after bulk changes (imports);
+    // tokensIssuedBefore is the revocation mark set on the originating node, or null if tokens stay valid
+    record UserChanged(Long userId, String username, Long tokensIssuedBefore) implements InvalidationEvent {
+    }
+
+    // A single token was revoked (logout, refresh token rotation)
+    record TokenRevoked(String tokenId, long expiresAt) implements InvalidationEvent {
+    }
+}
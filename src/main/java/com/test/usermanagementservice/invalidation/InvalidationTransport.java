@@ -0,0 +1,15 @@
+package com.test.usermanagementservice.invalidation;
+
+import java.util.function.Consumer;
+
+// Carries invalidation events between the nodes of one deployment. InJvmInvalidationTransport connects the
+// application contexts of a single JVM; a broker-backed implementation (e.g. Redis pub/sub) replaces it
+// for real replicas. Delivery is at most once and unordered across nodes, so events must be idempotent.
+public interface InvalidationTransport {
+
+    // Sends the event to every other node without waiting for them
+    void send(InvalidationEvent event);
+
+    // Registers the handler for events sent by other nodes; this node's own events are not delivered to it
+    void subscribe(Consumer<InvalidationEvent> handler);
+}
@@ -7,33 +7,72 @@ import lombok.Data;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import java.sql.Timestamp;
+import java.util.Locale;
 
 @Entity
+@Table(indexes = {
+        @Index(name = "ux_app_user_username", columnList = "username", unique = true),
+        @Index(name = "ux_app_user_email", columnList = "email", unique = true),
+        @Index(name = "ix_app_user_role_id", columnList = "role, id"),
+        @Index(name = "ix_app_user_email_domain_id", columnList = "email_domain, id")
+})
+// Second-level cache regions, see HibernateCacheConfig. Bulk JPQL updates and deletes clear them
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "appUser")
+@NaturalIdCache(region = "appUserByUsername")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class AppUser {
 
+    // Pooled sequence rather than IDENTITY so Hibernate can batch inserts (see UserImportService)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "app_user_seq")
+    @SequenceGenerator(name = "app_user_seq", sequenceName = "app_user_seq", allocationSize = 50)
     @JsonIgnore
     private Long id;
 
+    @NaturalId(mutable = true)
     private String username;
     private String password;
     private String email;
+    // Lower-cased part after the '@', kept in step with email so listing by domain is an index lookup
+    @JsonIgnore
+    private String emailDomain;
     private String role;
     @JsonIgnore
     private Timestamp createdAt;
     @JsonIgnore
     private Timestamp updatedAt;
+    // Optimistic lock, sent to clients as the ETag of the user
+    @Version
+    @JsonIgnore
+    private Long version;
 
     public AppUser(String username, String password, String role) {
         this.username = username;
         this.password = password;
         this.role = role;
     }
+
+    @PrePersist
+    @PreUpdate
+    void deriveEmailDomain() {
+        emailDomain = emailDomainOf(email);
+    }
+
+    public static String emailDomainOf(String email) {
+        return email == null ? null : normalizeEmailDomain(email.substring(email.indexOf('@') + 1));
+    }
+
+    public static String normalizeEmailDomain(String domain) {
+        return domain.toLowerCase(Locale.ROOT);
+    }
 }
 
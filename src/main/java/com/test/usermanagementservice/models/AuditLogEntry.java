@@ -0,0 +1,54 @@
+package com.test.usermanagementservice.models;
+
+import com.test.usermanagementservice.audit.AuditAction;
+import com.test.usermanagementservice.audit.AuditEvent;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.sql.Timestamp;
+
+// Append-only audit trail, written in batches by AuditLog. For user changes the actor is the authenticated
+// caller and the target the user id; for logins the actor is the username tried and the target the client address
+@Entity
+@Table(name = "audit_log", indexes = {
+        @Index(name = "ix_audit_log_occurred_at", columnList = "occurredAt")
+})
+@Getter
+@NoArgsConstructor
+public class AuditLogEntry {
+
+    public static final int ACTOR_LENGTH = 255;
+    public static final int TARGET_LENGTH = 255;
+    public static final int OUTCOME_LENGTH = 32;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_log_seq")
+    @SequenceGenerator(name = "audit_log_seq", sequenceName = "audit_log_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, updatable = false)
+    private Timestamp occurredAt;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, updatable = false, length = 32)
+    private AuditAction action;
+    @Column(updatable = false, length = ACTOR_LENGTH)
+    private String actor;
+    @Column(updatable = false, length = TARGET_LENGTH)
+    private String target;
+    @Column(nullable = false, updatable = false, length = OUTCOME_LENGTH)
+    private String outcome;
+
+    public AuditLogEntry(AuditEvent event) {
+        this.occurredAt = Timestamp.from(event.occurredAt());
+        this.action = event.action();
+        // Login usernames come straight from the request; an oversized value must not fail the insert
+        this.actor = truncate(event.actor(), ACTOR_LENGTH);
+        this.target = truncate(event.target(), TARGET_LENGTH);
+        this.outcome = truncate(event.outcome(), OUTCOME_LENGTH);
+    }
+
+    private static String truncate(String value, int length) {
+        return value == null || value.length() <= length ? value : value.substring(0, length);
+    }
+}
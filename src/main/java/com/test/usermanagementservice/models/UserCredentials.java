@@ -0,0 +1,5 @@
+package com.test.usermanagementservice.models;
+
+// The columns authentication needs, read without hydrating the full AppUser entity
+public record UserCredentials(Long id, String username, String password, String role) {
+}
@@ -0,0 +1,34 @@
+package com.test.usermanagementservice.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+
+// UserDetails that also carry the user's id, so a refresh token can be bound to one user record
+// rather than to a username that may be freed and taken by someone else
+public class AppUserDetails extends User {
+
+    private final Long id;
+
+    public AppUserDetails(Long id, String username, String password,
+                          Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    // Null for UserDetails that did not come from the user services
+    public static Long idOf(Object principal) {
+        return principal instanceof AppUserDetails user ? user.getId() : null;
+    }
+
+    // A fresh instance, keeping the id when the original has one
+    public static AppUserDetails copyOf(UserDetails user, String password) {
+        return new AppUserDetails(idOf(user), user.getUsername(), password, user.getAuthorities());
+    }
+}
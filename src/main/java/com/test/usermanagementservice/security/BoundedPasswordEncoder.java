@@ -0,0 +1,99 @@
+package com.test.usermanagementservice.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Function;
+
+// Runs password hashing on a dedicated, size-limited pool so a login burst cannot occupy every
+// request thread with BCrypt. When the pool and its queue are full, calls fail immediately with
+// RejectedExecutionException instead of queueing without bound.
+// password.hash is timed on the pool thread and tagged by operation and outcome; rejections are counted separately.
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final Timer matchTimer;
+    private final Timer mismatchTimer;
+    private final Timer encodeTimer;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, ThreadPoolExecutor executor, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.matchTimer = timer("matches", "match");
+        this.mismatchTimer = timer("matches", "mismatch");
+        this.encodeTimer = timer("encode", "success");
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "passwordHashing");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run("encode", () -> delegate.encode(rawPassword), hash -> encodeTimer);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run("matches", () -> delegate.matches(rawPassword, encodedPassword),
+                matched -> matched ? matchTimer : mismatchTimer);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(String operation, Callable<T> hashing, Function<T, Timer> timerFor) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                try {
+                    T result = hashing.call();
+                    sample.stop(timerFor.apply(result));
+                    return result;
+                } catch (Exception | Error e) {
+                    sample.stop(timer(operation, "error"));
+                    throw e;
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Thrown by submit when the pool and queue are full
+            Counter.builder("password.hash.rejected").tag("operation", operation).register(meterRegistry).increment();
+            throw e;
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private Timer timer(String operation, String outcome) {
+        return Timer.builder("password.hash")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
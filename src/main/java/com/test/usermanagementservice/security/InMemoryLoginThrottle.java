@@ -0,0 +1,100 @@
+package com.test.usermanagementservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Token buckets per username and per client address. Each attempt takes a token; tokens come back one per
+// refill period up to the capacity, so an empty username bucket is a lockout that lifts on its own
+@Component
+public class InMemoryLoginThrottle implements LoginThrottle {
+
+    private final TokenBuckets usernames;
+    private final TokenBuckets clients;
+
+    @Autowired
+    public InMemoryLoginThrottle(@Value("${security.login.username.capacity:5}") int usernameCapacity,
+                                 @Value("${security.login.username.refill-period:PT1M}") Duration usernameRefillPeriod,
+                                 @Value("${security.login.client.capacity:20}") int clientCapacity,
+                                 @Value("${security.login.client.refill-period:PT3S}") Duration clientRefillPeriod,
+                                 @Value("${security.login.maximum-tracked:100000}") long maximumTracked,
+                                 MeterRegistry meterRegistry) {
+        this(usernameCapacity, usernameRefillPeriod, clientCapacity, clientRefillPeriod, maximumTracked,
+                meterRegistry, Ticker.systemTicker());
+    }
+
+    public InMemoryLoginThrottle(int usernameCapacity, Duration usernameRefillPeriod,
+                                 int clientCapacity, Duration clientRefillPeriod,
+                                 long maximumTracked, MeterRegistry meterRegistry, Ticker ticker) {
+        this.usernames = new TokenBuckets(usernameCapacity, usernameRefillPeriod, maximumTracked, ticker);
+        this.clients = new TokenBuckets(clientCapacity, clientRefillPeriod, maximumTracked, ticker);
+        CaffeineCacheMetrics.monitor(meterRegistry, usernames.buckets, "loginThrottleUsernames");
+        CaffeineCacheMetrics.monitor(meterRegistry, clients.buckets, "loginThrottleClients");
+    }
+
+    @Override
+    public long tryAcquire(String username, String clientAddress) {
+        // The address first: a throttled client does not use up the tokens of the usernames it tries
+        long waitNanos = clients.tryTake(Objects.requireNonNullElse(clientAddress, ""));
+        if (waitNanos == 0) {
+            waitNanos = usernames.tryTake(Objects.requireNonNullElse(username, ""));
+        }
+        return waitNanos == 0 ? 0 : Math.max(1, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+    }
+
+    @Override
+    public void reset(String username) {
+        usernames.buckets.invalidate(username);
+    }
+
+    // Each bucket is a single timestamp: the time at which it is full again. Taking a token pushes it one
+    // refill period further; the bucket is empty when that lands more than capacity periods ahead.
+    // Updates are a CAS on that long, so concurrent attempts on one key never block each other.
+    private static final class TokenBuckets {
+
+        private final long refillNanos;
+        private final long burstNanos;
+        private final Ticker ticker;
+        // A bucket untouched for capacity periods is full, the same as a missing entry, so it can expire then
+        private final Cache<String, AtomicLong> buckets;
+
+        TokenBuckets(int capacity, Duration refillPeriod, long maximumSize, Ticker ticker) {
+            this.refillNanos = refillPeriod.toNanos();
+            this.burstNanos = refillNanos * capacity;
+            this.ticker = ticker;
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maximumSize)
+                    .expireAfterAccess(burstNanos, TimeUnit.NANOSECONDS)
+                    .ticker(ticker)
+                    .recordStats()
+                    .build();
+        }
+
+        // Nanoseconds until a token is available, or 0 if one was taken
+        long tryTake(String key) {
+            AtomicLong fullAt = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+            long now = ticker.read();
+            while (true) {
+                long current = fullAt.get();
+                long next = Math.max(current, now) + refillNanos;
+                long excess = next - now - burstNanos;
+                if (excess > 0) {
+                    return excess;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
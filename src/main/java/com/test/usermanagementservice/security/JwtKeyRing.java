@@ -0,0 +1,185 @@
+package com.test.usermanagementservice.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Signing keys for JwtUtil, looked up by the token's "kid" header when verifying.
+//
+// HS256 (the default) signs with the shared secret and publishes nothing. RS256/ES256 generate
+// key pairs in memory and rotate them on a schedule: the next key is published in the JWKS one
+// rotation ahead of use, so downstream caches already hold it when the first token signed with
+// it arrives, and retired keys stay verifiable until the tokens they signed have expired.
+// Generated keys are per instance, so asymmetric mode assumes a single signing node.
+@Component
+public class JwtKeyRing extends SigningKeyResolverAdapter {
+
+    public record SigningKey(String kid, SignatureAlgorithm algorithm, Key key) {
+    }
+
+    public record Jwks(byte[] json, String etag) {
+    }
+
+    private record VerificationKey(SignatureAlgorithm algorithm, Key key, PublicKey publicKey, Instant retireAt) {
+    }
+
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final SignatureAlgorithm algorithm;
+    private final Duration keyRetention;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, VerificationKey> verificationKeys = new ConcurrentHashMap<>();
+    private final Key hmacKey;
+
+    private volatile SigningKey active;
+    private volatile SigningKey next;
+    private volatile Jwks jwks;
+
+    public JwtKeyRing(@Value("${jwt.signing.algorithm:HS256}") String algorithm,
+                      @Value("${jwt.secret}") String base64Secret,
+                      @Value("${jwt.signing.key-retention:P7D}") Duration keyRetention) {
+        this.algorithm = SignatureAlgorithm.forName(algorithm);
+        this.keyRetention = keyRetention;
+        if (this.algorithm == SignatureAlgorithm.HS256) {
+            this.hmacKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret));
+            this.active = new SigningKey(null, SignatureAlgorithm.HS256, hmacKey);
+        } else if (this.algorithm == SignatureAlgorithm.RS256 || this.algorithm == SignatureAlgorithm.ES256) {
+            this.hmacKey = null;
+            this.active = generate();
+            this.next = generate();
+        } else {
+            throw new IllegalArgumentException("Unsupported jwt.signing.algorithm: " + algorithm);
+        }
+        publish();
+    }
+
+    public SigningKey activeKey() {
+        return active;
+    }
+
+    public Jwks jwks() {
+        return jwks;
+    }
+
+    // Promotes the pre-published key, publishes a new next key and drops keys whose tokens have all expired
+    @Scheduled(initialDelayString = "${jwt.signing.rotation-interval:P1D}",
+            fixedDelayString = "${jwt.signing.rotation-interval:P1D}")
+    public synchronized void rotate() {
+        if (hmacKey != null) {
+            return;
+        }
+        SigningKey retiring = active;
+        active = next;
+        next = generate();
+        verificationKeys.computeIfPresent(retiring.kid(), (kid, key) ->
+                new VerificationKey(key.algorithm(), key.key(), key.publicKey(), Instant.now().plus(keyRetention)));
+        verificationKeys.values().removeIf(key -> key.retireAt() != null && key.retireAt().isBefore(Instant.now()));
+        publish();
+    }
+
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        String kid = header.getKeyId();
+        if (kid == null) {
+            // Tokens issued before key ids were introduced are HS256 without a kid
+            if (hmacKey != null && SignatureAlgorithm.HS256.getValue().equals(header.getAlgorithm())) {
+                return hmacKey;
+            }
+            throw new SignatureException("Token has no key id");
+        }
+        VerificationKey key = verificationKeys.get(kid);
+        if (key == null || !key.algorithm().getValue().equals(header.getAlgorithm())) {
+            throw new SignatureException("Unknown signing key id");
+        }
+        return key.key();
+    }
+
+    private SigningKey generate() {
+        KeyPair keyPair = Keys.keyPairFor(algorithm);
+        String kid = thumbprint(keyPair.getPublic());
+        verificationKeys.put(kid, new VerificationKey(algorithm, keyPair.getPublic(), keyPair.getPublic(), null));
+        return new SigningKey(kid, algorithm, keyPair.getPrivate());
+    }
+
+    private synchronized void publish() {
+        List<Map<String, Object>> keys = new ArrayList<>();
+        verificationKeys.forEach((kid, key) -> keys.add(toJwk(kid, key)));
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(Map.of("keys", keys));
+            jwks = new Jwks(json, "\"" + BASE64URL.encodeToString(Arrays.copyOf(sha256(json), 16)) + "\"");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize JWKS", e);
+        }
+    }
+
+    private static Map<String, Object> toJwk(String kid, VerificationKey key) {
+        Map<String, Object> jwk = new LinkedHashMap<>();
+        if (key.publicKey() instanceof RSAPublicKey rsa) {
+            jwk.put("kty", "RSA");
+            jwk.put("n", unsigned(rsa.getModulus(), 0));
+            jwk.put("e", unsigned(rsa.getPublicExponent(), 0));
+        } else if (key.publicKey() instanceof ECPublicKey ec) {
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("x", unsigned(ec.getW().getAffineX(), 32));
+            jwk.put("y", unsigned(ec.getW().getAffineY(), 32));
+        }
+        jwk.put("use", "sig");
+        jwk.put("alg", key.algorithm().getValue());
+        jwk.put("kid", kid);
+        return jwk;
+    }
+
+    // Big-endian magnitude without the sign byte, left-padded to the given length (RFC 7518)
+    private static String unsigned(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (bytes.length < length) {
+            byte[] padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return BASE64URL.encodeToString(bytes);
+    }
+
+    private static String thumbprint(PublicKey publicKey) {
+        return BASE64URL.encodeToString(Arrays.copyOf(sha256(publicKey.getEncoded()), 12));
+    }
+
+    private static byte[] sha256(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.test.usermanagementservice.security;
+
+// Limits login attempts before any password is checked. InMemoryLoginThrottle keeps its counters per node;
+// an implementation over a shared store can apply the same limits across instances
+public interface LoginThrottle {
+
+    // Takes one attempt for the username and for the client address. Returns 0 when the attempt may go ahead,
+    // otherwise the milliseconds until the next attempt would be allowed
+    long tryAcquire(String username, String clientAddress);
+
+    // Called after a successful login so earlier failed attempts stop counting against the user
+    void reset(String username);
+}
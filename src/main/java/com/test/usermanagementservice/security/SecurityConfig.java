@@ -2,19 +2,37 @@ package com.test.usermanagementservice.security;
 
 import com.test.usermanagementservice.filters.JwtAuthenticationFilter;
 import com.test.usermanagementservice.service.CustomUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementPortType;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class SecurityConfig {
@@ -22,13 +40,22 @@ public class SecurityConfig {
     private CustomUserDetailsService userDetailsService;
     private final JwtAuthenticationFilter jwtFilter;
 
+    @Value("${security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
     public SecurityConfig(JwtAuthenticationFilter jwtFilter, CustomUserDetailsService userDetailsService) {
         this.jwtFilter = jwtFilter;
         this.userDetailsService = userDetailsService;
     }
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, Environment environment) throws Exception {
+        // Prometheus scrapes without a token only on a separate management port (management.server.port); the
+        // endpoint matcher then ignores requests to the API port. Served on the API port, it needs an ADMIN token
+        AuthorizationManager<RequestAuthorizationContext> prometheusScrape =
+                ManagementPortType.get(environment) == ManagementPortType.DIFFERENT
+                        ? (authentication, context) -> new AuthorizationDecision(true)
+                        : AuthorityAuthorizationManager.hasRole("ADMIN");
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .csrf(csrf -> csrf
@@ -41,13 +68,21 @@ public class SecurityConfig {
                 )
                 // Disable CSRF
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/api/auth/login","/h2-console/**","/swagger-ui.html",
-                                "/swagger-ui/**",
-                                "/v3/api-docs/**").permitAll() // Public endpoints
+                        // The original request was already authorized; async dispatches finish streamed responses and
+                        // error dispatches render its error, so a 403 or 404 is not turned into a 401
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll()
+                        // Public endpoints and the health probe; the JWT filter skips the same paths
+                        .requestMatchers(JwtAuthenticationFilter.PUBLIC_PATHS.toArray(String[]::new)).permitAll()
+                        .requestMatchers(EndpointRequest.to("prometheus")).access(prometheusScrape)
                         .anyRequest().authenticated() // All other endpoints require authentication
                 )
                 .sessionManagement(session -> session
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS) // Stateless sessions
+                )
+                // 401 with the filter's body for a missing token, instead of the default 403
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint((request, response, e) ->
+                                JwtAuthenticationFilter.writeUnauthorized(response))
                 );
 
         // Add JWT filter before UsernamePasswordAuthenticationFilter
@@ -57,16 +92,49 @@ public class SecurityConfig {
 
     }
 
+    // The filter is a @Component, so Boot would also register it with the servlet container and run it
+    // (or at least its already-filtered check) a second time per request; it belongs to the security chain only
+    @Bean
+    public FilterRegistrationBean<JwtAuthenticationFilter> jwtFilterRegistration() {
+        FilterRegistrationBean<JwtAuthenticationFilter> registration = new FilterRegistrationBean<>(jwtFilter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return delegatingPasswordEncoder(bcryptStrength);
+    }
+
+    // New hashes are stored as {bcrypt}...; hashes without an id prefix (seeded before this change)
+    // are still matched as BCrypt and get re-encoded on the next successful login
+    public static PasswordEncoder delegatingPasswordEncoder(int bcryptStrength) {
+        PasswordEncoder bcrypt = new TunableBCryptPasswordEncoder(bcryptStrength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
+    }
+
+    // Dedicated pool for login hashing; a full pool and queue rejects instead of blocking request threads.
+    // Platform threads also in the vthreads profile: the work is CPU bound and the pool size is the limit
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor passwordHashingExecutor(
+            @Value("${security.password.hashing-threads:0}") int threads,
+            @Value("${security.password.hashing-queue-capacity:64}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>(),
+                new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
     }
 
     @Bean
-    public DaoAuthenticationProvider authProvider() {
+    public DaoAuthenticationProvider authProvider(ThreadPoolExecutor passwordHashingExecutor, MeterRegistry meterRegistry) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService);
-        provider.setPasswordEncoder(passwordEncoder());
+        provider.setPasswordEncoder(new BoundedPasswordEncoder(passwordEncoder(), passwordHashingExecutor, meterRegistry));
+        // Rehash on successful login when the stored hash is outdated or uses a different cost
+        provider.setUserDetailsPasswordService(userDetailsService);
         return provider;
     }
 
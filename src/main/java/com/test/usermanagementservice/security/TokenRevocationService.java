@@ -0,0 +1,100 @@
+package com.test.usermanagementservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.test.usermanagementservice.util.JwtUtil;
+import com.test.usermanagementservice.util.VerifiedToken;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+// In-memory revocation, checked per request without touching the database.
+//
+// "Not before" marks per user: tokens issued before a user's mark are rejected, which lets the
+// stateless filter cut off stale roles without looking the user up. A mark only needs to live as
+// long as the longest access token it can reject; refresh tokens re-read the user when exchanged.
+//
+// Revoked token ids (jti) from logout and refresh rotation. Each id is dropped when the token it
+// names expires, so the set never holds more than the tokens revoked within one token lifetime.
+@Component
+public class TokenRevocationService {
+
+    private final Cache<String, Long> notBefore;
+    private final Cache<String, Long> revokedIds;
+
+    public TokenRevocationService(JwtUtil jwtUtil) {
+        this.notBefore = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(jwtUtil.getExpirationTime()))
+                .build();
+        this.revokedIds = Caffeine.newBuilder()
+                .expireAfter(new UntilTokenExpiry())
+                .build();
+    }
+
+    // Invalidates every access token issued to this user so far and returns the mark.
+    // iat has second precision, so the mark is truncated to the second: tokens issued later in
+    // the same second as the revocation remain valid (e.g. an immediate re-login).
+    public long revokeUser(String username) {
+        long mark = currentMark();
+        revokeUser(username, mark);
+        return mark;
+    }
+
+    // A mark for revoking later, once the change it belongs to has gone through
+    public long currentMark() {
+        return System.currentTimeMillis() / 1000 * 1000;
+    }
+
+    // Applies a mark set elsewhere (another node); an older mark never replaces a newer one
+    public void revokeUser(String username, long notBeforeMillis) {
+        if (username != null) {
+            notBefore.asMap().merge(username, notBeforeMillis, Math::max);
+        }
+    }
+
+    // Returns false if the token was already revoked, so concurrent refreshes with one token cannot both win
+    public boolean revokeToken(VerifiedToken token) {
+        if (token.id() == null || token.expiresAt() == null) {
+            return false;
+        }
+        return revokedIds.asMap().putIfAbsent(token.id(), token.expiresAt().getTime()) == null;
+    }
+
+    // Applies a revocation done elsewhere (another node)
+    public void revokeTokenId(String tokenId, long expiresAtMillis) {
+        revokedIds.asMap().putIfAbsent(tokenId, expiresAtMillis);
+    }
+
+    public boolean isTokenRevoked(VerifiedToken token) {
+        return token.id() != null && revokedIds.getIfPresent(token.id()) != null;
+    }
+
+    public boolean isRevoked(VerifiedToken token) {
+        if (isTokenRevoked(token)) {
+            return true;
+        }
+        Long mark = notBefore.getIfPresent(token.subject());
+        return mark != null && (token.issuedAt() == null || token.issuedAt().getTime() < mark);
+    }
+
+    // Values are the revoked token's exp in epoch millis
+    private static class UntilTokenExpiry implements Expiry<String, Long> {
+
+        @Override
+        public long expireAfterCreate(String id, Long expiresAt, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, expiresAt - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String id, Long expiresAt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String id, Long expiresAt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.test.usermanagementservice.service;
+
+import com.test.usermanagementservice.models.AuditLogEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface AuditLogRepository extends JpaRepository<AuditLogEntry, Long> {
+}
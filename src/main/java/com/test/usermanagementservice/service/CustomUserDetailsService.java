@@ -1,31 +1,100 @@
 package com.test.usermanagementservice.service;
 
-import com.test.usermanagementservice.models.AppUser;
+import com.test.usermanagementservice.invalidation.InvalidationBus;
+import com.test.usermanagementservice.invalidation.InvalidationEvent;
+import com.test.usermanagementservice.models.UserCredentials;
+import com.test.usermanagementservice.security.AppUserDetails;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    public static final String USER_DETAILS_CACHE = "userDetails";
 
     private final UserRepository userRepository;
+    private final Cache userDetailsCache;
+    // Looked up on use: the bus itself depends on this service to apply events from other nodes
+    private final ObjectProvider<InvalidationBus> invalidationBus;
+    // user.lookup, tagged by where the user came from and whether it exists
+    private final Timer cacheHits;
+    private final Timer databaseHits;
+    private final Timer notFound;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, CacheManager cacheManager,
+                                    MeterRegistry meterRegistry, ObjectProvider<InvalidationBus> invalidationBus) {
         this.userRepository = userRepository;
+        this.invalidationBus = invalidationBus;
+        this.userDetailsCache = Objects.requireNonNull(cacheManager.getCache(USER_DETAILS_CACHE),
+                "Cache '" + USER_DETAILS_CACHE + "' is not configured");
+        this.cacheHits = lookupTimer(meterRegistry, "cache", "found");
+        this.databaseHits = lookupTimer(meterRegistry, "database", "found");
+        this.notFound = lookupTimer(meterRegistry, "database", "not_found");
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        AppUser user = userRepository.findByUsername(username);
-        if(user == null){
-            throw new UsernameNotFoundException("Username Not Found,404");
+        long start = System.nanoTime();
+        UserDetails userDetails = userDetailsCache.get(username, UserDetails.class);
+        if (userDetails == null) {
+            try {
+                userDetails = loadFromRepository(username);
+            } catch (UsernameNotFoundException e) {
+                notFound.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                throw e;
+            }
+            userDetailsCache.put(username, userDetails);
+            databaseHits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        } else {
+            cacheHits.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
         }
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole()))
+        // Hand out a copy: the AuthenticationManager erases credentials on the instance it is given
+        return AppUserDetails.copyOf(userDetails, userDetails.getPassword());
+    }
+
+    // Stores a re-encoded hash after a successful login (see DaoAuthenticationProvider)
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        evictUser(user.getUsername());
+        // Same password, new hash: other nodes drop their copies, tokens stay valid
+        invalidationBus.ifAvailable(bus -> bus.publish(
+                new InvalidationEvent.UserChanged(AppUserDetails.idOf(user), user.getUsername(), null)));
+        return AppUserDetails.copyOf(user, newPassword);
+    }
+
+    // Called on every user mutation so role changes and deletions are seen on the next request
+    public void evictUser(String username) {
+        if (username != null) {
+            userDetailsCache.evict(username);
+        }
+    }
+
+    private UserDetails loadFromRepository(String username) {
+        UserCredentials user = userRepository.findCredentialsByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("Username Not Found,404"));
+        return new AppUserDetails(
+                user.id(),
+                user.username(),
+                user.password(),
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.role()))
         );
     }
+
+    private static Timer lookupTimer(MeterRegistry meterRegistry, String source, String outcome) {
+        return Timer.builder("user.lookup")
+                .tag("source", source)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 }
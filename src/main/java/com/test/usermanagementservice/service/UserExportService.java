@@ -0,0 +1,57 @@
+package com.test.usermanagementservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.test.usermanagementservice.DTOs.AppUserDTO;
+import com.test.usermanagementservice.models.AppUser;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.stream.Stream;
+
+// Writes every user as one JSON object per line while scrolling a database cursor,
+// so memory use stays flat regardless of table size
+@Service
+public class UserExportService {
+
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter writer;
+
+    public UserExportService(UserRepository userRepository, EntityManager entityManager,
+                             PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.writer = objectMapper.writerFor(AppUserDTO.class);
+    }
+
+    public void exportTo(OutputStream out) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<AppUser> users = userRepository.streamAll()) {
+                users.forEach(user -> {
+                    writeLine(out, user);
+                    // Keep the persistence context from growing with the row count
+                    entityManager.detach(user);
+                });
+            }
+        });
+    }
+
+    private void writeLine(OutputStream out, AppUser user) {
+        try {
+            out.write(writer.writeValueAsBytes(
+                    new AppUserDTO(user.getId(), user.getUsername(), user.getEmail(), user.getRole())));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.test.usermanagementservice.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.test.usermanagementservice.DTOs.UserImportReport;
+import com.test.usermanagementservice.DTOs.UserImportRow;
+import com.test.usermanagementservice.models.AppUser;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Imports users from a streamed JSON (array or one object per line) or CSV body.
+// Rows are read in chunks; each chunk is validated, hashed in parallel and inserted in one
+// JDBC-batched transaction. Rows that fail are reported individually and do not stop the import.
+// Hashing runs on the service's own bounded pool, not the common ForkJoinPool and not the login pool.
+@Service
+public class UserImportService {
+
+    public enum Format { JSON, CSV }
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader jsonReader;
+    private final ObjectReader csvReader;
+    private final int batchSize;
+    private final ThreadPoolExecutor hashingExecutor;
+
+    public UserImportService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                             EntityManager entityManager, PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             @Value("${users.import.batch-size:500}") int batchSize,
+                             @Value("${users.import.hashing-threads:0}") int hashingThreads) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jsonReader = objectMapper.readerFor(UserImportRow.class);
+        CsvMapper csvMapper = new CsvMapper();
+        this.csvReader = csvMapper.readerFor(UserImportRow.class)
+                .with(csvMapper.schemaFor(UserImportRow.class).withHeader().withColumnReordering(true));
+        this.batchSize = batchSize;
+        int poolSize = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        // Room for one chunk; concurrent imports beyond that hash on their own request thread
+        this.hashingExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(batchSize), new CustomizableThreadFactory("import-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void close() {
+        hashingExecutor.shutdown();
+    }
+
+    public UserImportReport importUsers(InputStream body, Format format) throws IOException {
+        UserImportReport report = new UserImportReport();
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<NumberedRow> chunk = new ArrayList<>(batchSize);
+        long rowNumber = 0;
+
+        ObjectReader reader = format == Format.CSV ? csvReader : jsonReader;
+        try (MappingIterator<UserImportRow> rows = reader.readValues(body)) {
+            while (true) {
+                UserImportRow row;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    rowNumber++;
+                    row = rows.nextValue();
+                } catch (IOException | RuntimeException e) {
+                    // The stream position is unreliable after a syntax error, so stop here
+                    report.addError(rowNumber, null, "Unreadable row, import stopped: " + e.getMessage());
+                    break;
+                }
+                chunk.add(new NumberedRow(rowNumber, row));
+                if (chunk.size() == batchSize) {
+                    importChunk(chunk, seenUsernames, seenEmails, report);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, seenUsernames, seenEmails, report);
+        }
+        return report;
+    }
+
+    private void importChunk(List<NumberedRow> chunk, Set<String> seenUsernames, Set<String> seenEmails,
+                             UserImportReport report) {
+        List<NumberedRow> valid = validate(chunk, seenUsernames, seenEmails, report);
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        // BCrypt dominates import time; spread it across cores
+        Timestamp now = Timestamp.from(Instant.now());
+        List<AppUser> users = hash(valid, now);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(users));
+            report.addImported(users.size());
+        } catch (RuntimeException batchFailure) {
+            // Something slipped past validation (e.g. a concurrent insert); retry row by row to find it
+            for (int i = 0; i < users.size(); i++) {
+                AppUser user = users.get(i);
+                user.setId(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> persist(List.of(user)));
+                    report.addImported(1);
+                    continue;
+                } catch (DataIntegrityViolationException e) {
+                    report.addError(valid.get(i).number(), user.getUsername(), "Username or email already in use");
+                } catch (RuntimeException e) {
+                    report.addError(valid.get(i).number(), user.getUsername(), "Could not be saved");
+                }
+                // Not imported, so a later row may still use them
+                seenUsernames.remove(user.getUsername());
+                seenEmails.remove(user.getEmail());
+            }
+        }
+    }
+
+    private List<NumberedRow> validate(List<NumberedRow> chunk, Set<String> seenUsernames, Set<String> seenEmails,
+                                       UserImportReport report) {
+        List<NumberedRow> complete = new ArrayList<>(chunk.size());
+        for (NumberedRow numbered : chunk) {
+            UserImportRow row = numbered.row();
+            if (isBlank(row.getUsername()) || isBlank(row.getPassword()) || isBlank(row.getEmail())) {
+                report.addError(numbered.number(), row.getUsername(), "username, password and email are required");
+            } else {
+                complete.add(numbered);
+            }
+        }
+        if (complete.isEmpty()) {
+            return complete;
+        }
+
+        // One query per chunk instead of one per row
+        Set<String> existingUsernames = userRepository.findExistingUsernames(
+                complete.stream().map(numbered -> numbered.row().getUsername()).toList());
+        Set<String> existingEmails = userRepository.findExistingEmails(
+                complete.stream().map(numbered -> numbered.row().getEmail()).toList());
+
+        List<NumberedRow> valid = new ArrayList<>(complete.size());
+        for (NumberedRow numbered : complete) {
+            UserImportRow row = numbered.row();
+            // Usernames and emails are only reserved by rows that pass both checks
+            if (existingUsernames.contains(row.getUsername()) || seenUsernames.contains(row.getUsername())) {
+                report.addError(numbered.number(), row.getUsername(), "Username already in use");
+            } else if (existingEmails.contains(row.getEmail()) || seenEmails.contains(row.getEmail())) {
+                report.addError(numbered.number(), row.getUsername(), "Email already in use");
+            } else {
+                seenUsernames.add(row.getUsername());
+                seenEmails.add(row.getEmail());
+                valid.add(numbered);
+            }
+        }
+        return valid;
+    }
+
+    private List<AppUser> hash(List<NumberedRow> rows, Timestamp createdAt) {
+        List<FutureTask<AppUser>> tasks = new ArrayList<>(rows.size());
+        for (NumberedRow numbered : rows) {
+            FutureTask<AppUser> task = new FutureTask<>(() -> toUser(numbered.row(), createdAt));
+            try {
+                hashingExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.run();
+            }
+            tasks.add(task);
+        }
+
+        List<AppUser> users = new ArrayList<>(tasks.size());
+        try {
+            for (FutureTask<AppUser> task : tasks) {
+                users.add(task.get());
+            }
+        } catch (InterruptedException e) {
+            tasks.forEach(task -> task.cancel(false));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing imported passwords", e);
+        } catch (ExecutionException e) {
+            tasks.forEach(task -> task.cancel(false));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return users;
+    }
+
+    private void persist(List<AppUser> users) {
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        for (AppUser user : users) {
+            entityManager.persist(user);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private AppUser toUser(UserImportRow row, Timestamp createdAt) {
+        AppUser user = new AppUser(row.getUsername(), passwordEncoder.encode(row.getPassword()), row.getRole());
+        user.setEmail(row.getEmail());
+        user.setCreatedAt(createdAt);
+        return user;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private record NumberedRow(long number, UserImportRow row) {
+    }
+}
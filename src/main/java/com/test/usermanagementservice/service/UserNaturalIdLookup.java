@@ -0,0 +1,9 @@
+package com.test.usermanagementservice.service;
+
+import com.test.usermanagementservice.models.AppUser;
+
+public interface UserNaturalIdLookup {
+
+    // Loads by the username natural id, so repeat lookups are served from the second-level cache
+    AppUser findByUsername(String username);
+}
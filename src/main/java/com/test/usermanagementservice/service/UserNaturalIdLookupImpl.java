@@ -0,0 +1,24 @@
+package com.test.usermanagementservice.service;
+
+import com.test.usermanagementservice.models.AppUser;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+// Repository fragment; a derived findByUsername query would skip the natural id cache
+public class UserNaturalIdLookupImpl implements UserNaturalIdLookup {
+
+    private final EntityManager entityManager;
+
+    public UserNaturalIdLookupImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AppUser findByUsername(String username) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(AppUser.class)
+                .load(username);
+    }
+}
@@ -0,0 +1,13 @@
+package com.test.usermanagementservice.service;
+
+import com.test.usermanagementservice.DTOs.AppUserDTO;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+
+public interface UserPageQuery {
+
+    // Keyset (seek) page: rows after the given id, so the cost does not grow with page depth.
+    // Null filters are left out of the query; the username pattern is a LIKE pattern escaped with a backslash
+    List<AppUserDTO> findPage(long afterId, String role, String usernamePattern, String emailDomain, Limit limit);
+}
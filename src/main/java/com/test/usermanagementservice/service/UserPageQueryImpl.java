@@ -0,0 +1,58 @@
+package com.test.usermanagementservice.service;
+
+import com.test.usermanagementservice.DTOs.AppUserDTO;
+import com.test.usermanagementservice.models.AppUser;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Repository fragment; a single query with "(:x is null or ...)" for every filter keeps the
+// database from using the role, username or email domain index, so only the given filters are added
+public class UserPageQueryImpl implements UserPageQuery {
+
+    private final EntityManager entityManager;
+
+    public UserPageQueryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<AppUserDTO> findPage(long afterId, String role, String usernamePattern, String emailDomain,
+                                     Limit limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<AppUserDTO> query = cb.createQuery(AppUserDTO.class);
+        Root<AppUser> user = query.from(AppUser.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.greaterThan(user.get("id"), afterId));
+        if (role != null) {
+            predicates.add(cb.equal(user.get("role"), role));
+        }
+        if (usernamePattern != null) {
+            predicates.add(cb.like(user.get("username"), usernamePattern, '\\'));
+        }
+        if (emailDomain != null) {
+            predicates.add(cb.equal(user.get("emailDomain"), AppUser.normalizeEmailDomain(emailDomain)));
+        }
+
+        query.select(cb.construct(AppUserDTO.class,
+                        user.get("id"), user.get("username"), user.get("email"), user.get("role")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(user.get("id")));
+
+        // Results go to the query cache and are dropped on the next write to app_user
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_CACHEABLE, true)
+                .setMaxResults(limit.max())
+                .getResultList();
+    }
+}
@@ -1,8 +1,78 @@
 package com.test.usermanagementservice.service;
 
+import com.test.usermanagementservice.DTOs.AppUserDTO;
 import com.test.usermanagementservice.models.AppUser;
+import com.test.usermanagementservice.models.UserCredentials;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface UserRepository extends JpaRepository<AppUser, Long> {
-    AppUser findByUsername(String username);
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public interface UserRepository extends JpaRepository<AppUser, Long>, UserNaturalIdLookup, UserPageQuery {
+
+    // Only the columns authentication needs; repeat lookups come from the query cache until app_user changes
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new com.test.usermanagementservice.models.UserCredentials(u.id, u.username, u.password, u.role) " +
+            "from AppUser u where u.username = :username")
+    Optional<UserCredentials> findCredentialsByUsername(String username);
+
+    @Query("select u.username from AppUser u where u.id = :id")
+    Optional<String> findUsernameById(Long id);
+
+    @Query("select new com.test.usermanagementservice.DTOs.AppUserDTO(u.id, u.username, u.email, u.role) " +
+            "from AppUser u where u.id in :ids")
+    List<AppUserDTO> findAllDtosById(Collection<Long> ids);
+
+    @Query("select u.username from AppUser u where u.username in :usernames")
+    Set<String> findExistingUsernames(Collection<String> usernames);
+
+    @Query("select u.email from AppUser u where u.email in :emails")
+    Set<String> findExistingEmails(Collection<String> emails);
+
+    // Cursor over the whole table for exports; must be consumed inside a transaction and closed
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u from AppUser u order by u.id")
+    Stream<AppUser> streamAll();
+
+    @Transactional
+    @Modifying
+    @Query("update AppUser u set u.password = :password where u.username = :username")
+    int updatePassword(String username, String password);
+
+    // Partial update in a single statement: null fields keep their value and the version is bumped.
+    // With an expected version only an unchanged row is updated; 0 means unknown id or stale version.
+    // The email domain is derived in the statement, the same way as AppUser.emailDomainOf
+    @Transactional
+    @Modifying
+    @Query("update AppUser u set u.username = coalesce(:username, u.username), " +
+            "u.email = coalesce(:email, u.email), " +
+            "u.emailDomain = coalesce(lower(substring(:email, locate('@', :email) + 1)), u.emailDomain), " +
+            "u.role = coalesce(:role, u.role), " +
+            "u.updatedAt = :updatedAt, u.version = u.version + 1 " +
+            "where u.id = :id and (:expectedVersion is null or u.version = :expectedVersion)")
+    int patch(Long id, String username, String email, String role, Timestamp updatedAt, Long expectedVersion);
+
+    // Unlike deleteById these do not load the entities first: one DELETE, returning the rows removed
+    @Transactional
+    @Modifying
+    @Query("delete from AppUser u where u.id = :id")
+    int deleteUserById(Long id);
+
+    @Transactional
+    @Modifying
+    @Query("delete from AppUser u where u.id in :ids")
+    int deleteUsersById(Collection<Long> ids);
 }
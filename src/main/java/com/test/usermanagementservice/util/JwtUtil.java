@@ -1,42 +1,151 @@
 package com.test.usermanagementservice.util;
 
+import com.test.usermanagementservice.security.JwtKeyRing;
 import io.jsonwebtoken.*;
+import io.jsonwebtoken.security.SignatureException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+
+import java.time.Duration;
 import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtil {
-    private final String SECRET_KEY = "954hYQHv3qTi+FxsSosy7AITQfrbpqBgFGmXpyyqRvo=";
-    private final long EXPIRATION_TIME = 86400000; // 1 day
+    public static final String ACCESS_TOKEN = "access";
+    public static final String REFRESH_TOKEN = "refresh";
+    private static final String TOKEN_TYPE_CLAIM = "token_type";
+    private static final String USER_ID_CLAIM = "uid";
+    // Skew for the parser behind validate(): large enough that jjwt never rejects on exp or nbf, so
+    // validate() can check them itself without the ExpiredJwtException (and its stack trace)
+    private static final long TIME_CHECKED_BY_CALLER_SECONDS = TimeUnit.DAYS.toSeconds(100 * 365);
+
+    private final long accessTokenTtl;
+    private final long refreshTokenTtl;
+
+    private final JwtKeyRing keyRing;
+    // Built once and thread-safe; the key is resolved per token from its kid header
+    private final JwtParser parser;
+    private final JwtParser timeLenientParser;
+
+    public JwtUtil(JwtKeyRing keyRing,
+                   @Value("${jwt.access-token.ttl:PT15M}") Duration accessTokenTtl,
+                   @Value("${jwt.refresh-token.ttl:P7D}") Duration refreshTokenTtl) {
+        this.keyRing = keyRing;
+        this.accessTokenTtl = accessTokenTtl.toMillis();
+        this.refreshTokenTtl = refreshTokenTtl.toMillis();
+        this.parser = Jwts.parserBuilder().setSigningKeyResolver(keyRing).build();
+        this.timeLenientParser = Jwts.parserBuilder()
+                .setSigningKeyResolver(keyRing)
+                .setAllowedClockSkewSeconds(TIME_CHECKED_BY_CALLER_SECONDS)
+                .build();
+    }
 
     public String generateToken(String username, String role) {
-        return Jwts.builder()
+        return sign(Jwts.builder()
                 .setSubject(username) // Add username to the subject
                 .claim("role", role)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .signWith(SignatureAlgorithm.HS256, SECRET_KEY)
+                .claim(TOKEN_TYPE_CLAIM, ACCESS_TOKEN), accessTokenTtl);
+    }
+
+    // Carries no role: the role is read again from the user when the token is exchanged.
+    // The user id ties the token to this user record, not to whoever holds the username later
+    public String generateRefreshToken(String username, Long userId) {
+        return sign(Jwts.builder()
+                .setSubject(username)
+                .claim(USER_ID_CLAIM, userId)
+                .claim(TOKEN_TYPE_CLAIM, REFRESH_TOKEN), refreshTokenTtl);
+    }
+
+    private String sign(JwtBuilder builder, long ttl) {
+        JwtKeyRing.SigningKey signingKey = keyRing.activeKey();
+        if (signingKey.kid() != null) {
+            builder.setHeaderParam(JwsHeader.KEY_ID, signingKey.kid());
+        }
+        long now = System.currentTimeMillis();
+        return builder
+                .setId(UUID.randomUUID().toString()) // jti, so a single token can be revoked
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + ttl))
+                .signWith(signingKey.key(), signingKey.algorithm())
                 .compact();
     }
 
+    // Parses and verifies the token once, returning everything the filter needs
+    public VerifiedToken verify(String token) {
+        return toVerifiedToken(parser.parseClaimsJws(token).getBody());
+    }
+
+    // Like verify, but reports failures as a result instead of throwing. Malformed and expired tokens, the
+    // failures that come in floods (scanners, clients holding tokens across a deploy), are recognized without
+    // any exception; a bad signature still costs the one jjwt throws internally
+    public TokenValidation validate(String token) {
+        if (!isCompactJws(token)) {
+            return TokenValidation.MALFORMED;
+        }
+        Claims claims;
+        try {
+            claims = timeLenientParser.parseClaimsJws(token).getBody();
+        } catch (SignatureException e) {
+            return TokenValidation.BAD_SIGNATURE;
+        } catch (JwtException | IllegalArgumentException e) {
+            return TokenValidation.MALFORMED;
+        }
+        // Same rule as the strict parser with no skew
+        long now = System.currentTimeMillis();
+        Date expiration = claims.getExpiration();
+        Date notBefore = claims.getNotBefore();
+        if ((expiration != null && now > expiration.getTime()) || (notBefore != null && now < notBefore.getTime())) {
+            return TokenValidation.EXPIRED;
+        }
+        return TokenValidation.valid(toVerifiedToken(claims));
+    }
+
     public String extractUsername(String token) {
-        return Jwts.parser()
-                .setSigningKey(SECRET_KEY)
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return verify(token).subject();
     }
 
     public boolean validateToken(String token, String username) {
-        return extractUsername(token).equals(username) && !isTokenExpired(token);
+        VerifiedToken verifiedToken = verify(token);
+        return verifiedToken.subject().equals(username) && !verifiedToken.expiresAt().before(new Date());
+    }
+
+    public long getExpirationTime() {
+        return accessTokenTtl;
+    }
+
+    public long getRefreshExpirationTime() {
+        return refreshTokenTtl;
+    }
+
+    private static VerifiedToken toVerifiedToken(Claims claims) {
+        return new VerifiedToken(claims.getSubject(), claims.get("role", String.class),
+                claims.getIssuedAt(), claims.getExpiration(),
+                claims.getId(), claims.get(TOKEN_TYPE_CLAIM, String.class), claims.get(USER_ID_CLAIM, Long.class));
     }
 
-    private boolean isTokenExpired(String token) {
-        return Jwts.parser()
-                .setSigningKey(SECRET_KEY)
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration()
-                .before(new Date());
+    // Three non-empty base64url parts, as every signed token this service accepts has
+    private static boolean isCompactJws(String token) {
+        if (token == null) {
+            return false;
+        }
+        int dots = 0;
+        int partLength = 0;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                if (partLength == 0 || ++dots > 2) {
+                    return false;
+                }
+                partLength = 0;
+            } else if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_') {
+                partLength++;
+            } else {
+                return false;
+            }
+        }
+        return dots == 2 && partLength > 0;
     }
 }
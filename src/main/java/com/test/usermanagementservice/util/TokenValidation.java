@@ -0,0 +1,28 @@
+package com.test.usermanagementservice.util;
+
+// Outcome of JwtUtil.validate: the verified claims, or why the token was refused.
+// The failures are shared constants, so refusing a token allocates nothing
+public record TokenValidation(Status status, VerifiedToken token) {
+
+    public enum Status {
+        VALID,
+        // Past its exp, or before its nbf
+        EXPIRED,
+        // Signature does not match, or no key for its kid
+        BAD_SIGNATURE,
+        // Not a compact JWS, or its header or claims cannot be read
+        MALFORMED
+    }
+
+    public static final TokenValidation EXPIRED = new TokenValidation(Status.EXPIRED, null);
+    public static final TokenValidation BAD_SIGNATURE = new TokenValidation(Status.BAD_SIGNATURE, null);
+    public static final TokenValidation MALFORMED = new TokenValidation(Status.MALFORMED, null);
+
+    public static TokenValidation valid(VerifiedToken token) {
+        return new TokenValidation(Status.VALID, token);
+    }
+
+    public boolean isValid() {
+        return status == Status.VALID;
+    }
+}
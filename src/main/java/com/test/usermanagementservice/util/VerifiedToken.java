@@ -0,0 +1,14 @@
+package com.test.usermanagementservice.util;
+
+import java.util.Date;
+
+// Claims of a token whose signature has already been checked.
+// id and type are null for tokens issued before refresh tokens existed; those count as access tokens.
+// userId is only set on refresh tokens.
+public record VerifiedToken(String subject, String role, Date issuedAt, Date expiresAt, String id, String type,
+                            Long userId) {
+
+    public boolean isRefreshToken() {
+        return JwtUtil.REFRESH_TOKEN.equals(type);
+    }
+}
@@ -0,0 +1,38 @@
+create sequence if not exists app_user_seq start with 1 increment by 50;
+
+create table if not exists app_user (
+    id bigint not null,
+    version bigint,
+    username varchar(255),
+    password varchar(255),
+    email varchar(255),
+    email_domain varchar(255),
+    role varchar(255),
+    created_at timestamp(6),
+    updated_at timestamp(6),
+    primary key (id),
+    constraint ux_app_user_username unique (username),
+    constraint ux_app_user_email unique (email)
+);
+
+create index if not exists ix_app_user_role_id on app_user (role, id);
+
+-- email_domain came after the first release: add and fill it on databases created before that
+alter table app_user add column if not exists email_domain varchar(255);
+update app_user set email_domain = lower(substring(email from position('@' in email) + 1))
+    where email_domain is null and email is not null;
+create index if not exists ix_app_user_email_domain_id on app_user (email_domain, id);
+
+create sequence if not exists audit_log_seq start with 1 increment by 50;
+
+create table if not exists audit_log (
+    id bigint not null,
+    occurred_at timestamp(6) not null,
+    action varchar(32) not null,
+    actor varchar(255),
+    target varchar(255),
+    outcome varchar(32) not null,
+    primary key (id)
+);
+
+create index if not exists ix_audit_log_occurred_at on audit_log (occurred_at);
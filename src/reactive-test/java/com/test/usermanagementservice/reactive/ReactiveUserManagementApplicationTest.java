@@ -0,0 +1,253 @@
+package com.test.usermanagementservice.reactive;
+
+import com.test.usermanagementservice.DTOs.AppUserDTO;
+import com.test.usermanagementservice.security.TokenRevocationService;
+import com.test.usermanagementservice.util.JwtUtil;
+import com.test.usermanagementservice.util.VerifiedToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = ReactiveUserManagementApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.main.web-application-type=reactive", "security.password.bcrypt-strength=4"})
+@ActiveProfiles("reactive")
+class ReactiveUserManagementApplicationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    private String accessToken;
+    private String refreshToken;
+
+    @BeforeEach
+    void loginAsAdmin() {
+        Map<?, ?> tokens = webTestClient.post().uri("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("username", "admin", "password", "admin123"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Map.class)
+                .returnResult().getResponseBody();
+        assertNotNull(tokens);
+        accessToken = (String) tokens.get("jwtToken");
+        refreshToken = (String) tokens.get("refreshToken");
+    }
+
+    @Test
+    void login_shouldRejectWrongPassword() {
+        webTestClient.post().uri("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("username", "admin", "password", "wrong"))
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void users_shouldRequireAValidAccessToken() {
+        webTestClient.get().uri("/api/users").exchange()
+                .expectStatus().isUnauthorized()
+                .expectHeader().valueEquals(HttpHeaders.WWW_AUTHENTICATE, "Bearer")
+                .expectBody().jsonPath("$.error").isEqualTo("Unauthorized - Invalid or missing JWT token");
+        webTestClient.get().uri("/api/users")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + refreshToken)
+                .exchange()
+                .expectStatus().isUnauthorized();
+        webTestClient.get().uri("/api/users")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer not.a.token")
+                .exchange()
+                .expectStatus().isUnauthorized()
+                .expectHeader().valueEquals(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+    }
+
+    @Test
+    void createListAndDelete() {
+        String location = "/api/users?usernamePrefix=reactive&limit=1";
+        for (String name : new String[]{"reactive1", "reactive2"}) {
+            webTestClient.post().uri("/api/users")
+                    .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                    .bodyValue(Map.of("username", name, "password", "secret", "email", name + "@example.com",
+                            "role", "USER"))
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody().jsonPath("$.username").isEqualTo(name);
+        }
+        webTestClient.post().uri("/api/users")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .bodyValue(Map.of("username", "reactive1", "password", "secret", "email", "other@example.com"))
+                .exchange()
+                .expectStatus().isEqualTo(409);
+
+        webTestClient.get().uri(location)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.users.length()").isEqualTo(1)
+                .jsonPath("$.users[0].username").isEqualTo("reactive1")
+                .jsonPath("$.nextCursor").isNumber();
+
+        // Read the stream to the end: an unconsumed response keeps the connection busy and holds up shutdown
+        List<AppUserDTO> exported = webTestClient.get().uri("/api/users/export")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(AppUserDTO.class)
+                .returnResult().getResponseBody();
+        assertNotNull(exported);
+        assertEquals(List.of("reactive1", "reactive2"), exported.stream()
+                .map(AppUserDTO::getUsername)
+                .filter(username -> username.startsWith("reactive"))
+                .toList());
+        assertEquals(exported.stream().map(AppUserDTO::getId).sorted().toList(),
+                exported.stream().map(AppUserDTO::getId).toList());
+
+        webTestClient.delete().uri("/api/users/999999")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void refresh_shouldRejectTokensOfADeletedUserWhoseNameWasTakenAgain() {
+        createUser("takeover");
+        String oldRefreshToken = (String) login("takeover").get("refreshToken");
+        Long id = exportedId("takeover");
+        webTestClient.delete().uri("/api/users/" + id)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .exchange()
+                .expectStatus().isOk();
+        createUser("takeover");
+
+        webTestClient.post().uri("/api/auth/refresh").bodyValue(Map.of("refreshToken", oldRefreshToken))
+                .exchange()
+                .expectStatus().isUnauthorized();
+        // The new account's own tokens still work
+        webTestClient.post().uri("/api/auth/refresh")
+                .bodyValue(Map.of("refreshToken", login("takeover").get("refreshToken")))
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void updateUser_shouldRequireEveryFieldAndRevokeOnlyAfterASuccessfulSave() {
+        createUser("putuser");
+        Long id = exportedId("putuser");
+        VerifiedToken earlierToken = new VerifiedToken("putuser", "ROLE_USER",
+                new Date(System.currentTimeMillis() - 5000), new Date(System.currentTimeMillis() + 60_000),
+                UUID.randomUUID().toString(), JwtUtil.ACCESS_TOKEN, null);
+
+        put(id, Map.of("username", "putuser", "email", "putuser@example.com"))
+                .expectStatus().isBadRequest();
+        put(999_999L, Map.of("username", "putuser", "email", "putuser@example.com", "role", "ADMIN"))
+                .expectStatus().isNotFound();
+        put(id, Map.of("username", "admin", "email", "putuser@example.com", "role", "ADMIN"))
+                .expectStatus().isEqualTo(409);
+        assertFalse(tokenRevocationService.isRevoked(earlierToken));
+
+        put(id, Map.of("username", "putuser", "email", "putuser@example.com", "role", "ADMIN"))
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.role").isEqualTo("ADMIN");
+        assertTrue(tokenRevocationService.isRevoked(earlierToken));
+    }
+
+    @Test
+    void refresh_shouldIssueANewPairOnce() {
+        Map<String, String> body = Map.of("refreshToken", refreshToken);
+        webTestClient.post().uri("/api/auth/refresh").bodyValue(body)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.jwtToken").isNotEmpty();
+        webTestClient.post().uri("/api/auth/refresh").bodyValue(body)
+                .exchange()
+                .expectStatus().isUnauthorized();
+    }
+
+    @Test
+    void listUsers_shouldFilterByEmailDomainAndFollowEmailChanges() {
+        webTestClient.post().uri("/api/users")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .bodyValue(Map.of("username", "domain1", "password", "secret", "email", "domain1@Domain.Test",
+                        "role", "USER"))
+                .exchange()
+                .expectStatus().isOk();
+        assertEquals(List.of("domain1"), usernamesInDomain("domain.TEST"));
+
+        put(exportedId("domain1"), Map.of("username", "domain1", "email", "domain1@moved.test", "role", "USER"))
+                .expectStatus().isOk();
+        assertEquals(List.of(), usernamesInDomain("domain.test"));
+        assertEquals(List.of("domain1"), usernamesInDomain("moved.test"));
+    }
+
+    private List<?> usernamesInDomain(String emailDomain) {
+        Map<?, ?> page = webTestClient.get().uri("/api/users?emailDomain=" + emailDomain)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Map.class)
+                .returnResult().getResponseBody();
+        assertNotNull(page);
+        return ((List<?>) page.get("users")).stream()
+                .map(user -> ((Map<?, ?>) user).get("username"))
+                .toList();
+    }
+
+    private void createUser(String username) {
+        webTestClient.post().uri("/api/users")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .bodyValue(Map.of("username", username, "password", "secret", "email", username + "@example.com",
+                        "role", "USER"))
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    private Long exportedId(String username) {
+        List<AppUserDTO> users = webTestClient.get().uri("/api/users/export")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(AppUserDTO.class)
+                .returnResult().getResponseBody();
+        assertNotNull(users);
+        return users.stream()
+                .filter(user -> user.getUsername().equals(username))
+                .findFirst().orElseThrow().getId();
+    }
+
+    private WebTestClient.ResponseSpec put(Long id, Map<String, String> body) {
+        return webTestClient.put().uri("/api/users/" + id)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .bodyValue(body)
+                .exchange();
+    }
+
+    private Map<?, ?> login(String username) {
+        Map<?, ?> tokens = webTestClient.post().uri("/api/auth/login")
+                .bodyValue(Map.of("username", username, "password", "secret"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Map.class)
+                .returnResult().getResponseBody();
+        assertNotNull(tokens);
+        return tokens;
+    }
+}
@@ -0,0 +1,24 @@
+package com.test.usermanagementservice.reactive;
+
+import com.test.usermanagementservice.reactive.models.UserRow;
+import com.test.usermanagementservice.reactive.service.ReactiveUserRepository;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+@Component
+public class ReactiveDataInitializer {
+
+    // Same seed users as DataInitializer; blocking is fine here, this runs once on the main thread at startup
+    @Bean
+    CommandLineRunner init(ReactiveUserRepository userRepository, PasswordEncoder passwordEncoder) {
+        return args -> userRepository.count()
+                .filter(count -> count == 0)
+                .flatMapMany(count -> userRepository.saveAll(Flux.just(
+                        new UserRow("admin", passwordEncoder.encode("admin123"), "ADMIN"),
+                        new UserRow("user", passwordEncoder.encode("user123"), "USER"))))
+                .blockLast();
+    }
+}
@@ -0,0 +1,37 @@
+package com.test.usermanagementservice.reactive;
+
+import com.test.usermanagementservice.security.InMemoryLoginThrottle;
+import com.test.usermanagementservice.security.JwtKeyRing;
+import com.test.usermanagementservice.security.TokenRevocationService;
+import com.test.usermanagementservice.security.VerifiedTokenCache;
+import com.test.usermanagementservice.util.JwtUtil;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Non-blocking variant of the service: same /api/auth and /api/users contract on WebFlux and R2DBC.
+// Token handling is shared with the servlet app; only the web, data and security layers differ.
+@SpringBootApplication(exclude = DataSourceAutoConfiguration.class)
+@Import({JwtKeyRing.class, JwtUtil.class, VerifiedTokenCache.class, TokenRevocationService.class,
+        InMemoryLoginThrottle.class})
+@EnableScheduling
+public class ReactiveUserManagementApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveUserManagementApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles("reactive")
+                .run(args);
+    }
+
+    // Tomcat is also on the classpath (for the servlet app) and would otherwise be picked; serve on Netty
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
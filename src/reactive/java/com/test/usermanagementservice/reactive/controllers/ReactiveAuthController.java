@@ -0,0 +1,140 @@
+package com.test.usermanagementservice.reactive.controllers;
+
+import com.test.usermanagementservice.DTOs.AuthRequest;
+import com.test.usermanagementservice.DTOs.AuthResponse;
+import com.test.usermanagementservice.DTOs.RefreshRequest;
+import com.test.usermanagementservice.reactive.service.ReactiveCustomUserDetailsService;
+import com.test.usermanagementservice.security.AppUserDetails;
+import com.test.usermanagementservice.security.LoginThrottle;
+import com.test.usermanagementservice.security.TokenRevocationService;
+import com.test.usermanagementservice.util.JwtUtil;
+import com.test.usermanagementservice.util.VerifiedToken;
+import io.jsonwebtoken.JwtException;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.RejectedExecutionException;
+
+@Tag(name = "Authentication", description = "Endpoints for user authentication")
+@RestController
+@RequestMapping("/api/auth")
+public class ReactiveAuthController {
+
+    private final ReactiveAuthenticationManager authenticationManager;
+    private final JwtUtil jwtUtil;
+    private final ReactiveCustomUserDetailsService userDetailsService;
+    private final TokenRevocationService tokenRevocationService;
+    private final LoginThrottle loginThrottle;
+
+    public ReactiveAuthController(ReactiveAuthenticationManager authenticationManager, JwtUtil jwtUtil,
+                                  ReactiveCustomUserDetailsService userDetailsService,
+                                  TokenRevocationService tokenRevocationService,
+                                  LoginThrottle loginThrottle) {
+        this.authenticationManager = authenticationManager;
+        this.jwtUtil = jwtUtil;
+        this.userDetailsService = userDetailsService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.loginThrottle = loginThrottle;
+    }
+
+    @Operation(summary = "Login a user",
+            description = "Authenticates a user and returns a short-lived access token and a refresh token")
+    @PostMapping("/login")
+    public Mono<ResponseEntity<?>> login(@RequestBody AuthRequest authRequest, ServerHttpRequest request) {
+        // Throttled attempts are answered before any password hashing is scheduled
+        InetSocketAddress remoteAddress = request.getRemoteAddress();
+        long retryAfterMillis = loginThrottle.tryAcquire(authRequest.getUsername(),
+                remoteAddress == null ? null : remoteAddress.getHostString());
+        if (retryAfterMillis > 0) {
+            return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf((retryAfterMillis + 999) / 1000))
+                    .body("Too many login attempts, retry later"));
+        }
+        // The password check runs on the password hashing scheduler (see ReactiveSecurityConfig)
+        return authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(authRequest.getUsername(), authRequest.getPassword()))
+                .<ResponseEntity<?>>map(authentication -> {
+                    String username = authentication.getName();
+                    String role = authentication.getAuthorities().stream().toList().get(0).toString();
+                    loginThrottle.reset(username);
+                    return ResponseEntity.ok(new AuthResponse(jwtUtil.generateToken(username, role),
+                            jwtUtil.generateRefreshToken(username,
+                                    AppUserDetails.idOf(authentication.getPrincipal()))));
+                })
+                .onErrorResume(AuthenticationException.class, e ->
+                        Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid credentials")))
+                // Password hashing scheduler is saturated; fail fast rather than queue without bound
+                .onErrorResume(RejectedExecutionException.class, e ->
+                        Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaders.RETRY_AFTER, "1")
+                                .body("Too many concurrent logins, retry later")));
+    }
+
+    @Operation(summary = "Refresh an access token",
+            description = "Exchanges a refresh token for a new access token and a new refresh token. " +
+                    "Each refresh token can be used once")
+    @PostMapping("/refresh")
+    public Mono<ResponseEntity<?>> refresh(@RequestBody RefreshRequest refreshRequest) {
+        VerifiedToken refreshToken = verifyQuietly(refreshRequest.getRefreshToken());
+        // Revoking first makes the exchange single-use, even for concurrent requests with the same token
+        if (refreshToken == null || !refreshToken.isRefreshToken()
+                || !tokenRevocationService.revokeToken(refreshToken)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid refresh token"));
+        }
+        return userDetailsService.findByUsername(refreshToken.subject())
+                // The username may have been freed by a delete or rename and taken by a new account since
+                .filter(user -> refreshToken.userId() != null
+                        && refreshToken.userId().equals(AppUserDetails.idOf(user)))
+                .<ResponseEntity<?>>map(user -> {
+                    String role = user.getAuthorities().stream().toList().get(0).toString();
+                    return ResponseEntity.ok(new AuthResponse(jwtUtil.generateToken(user.getUsername(), role),
+                            jwtUtil.generateRefreshToken(user.getUsername(), AppUserDetails.idOf(user))));
+                })
+                .defaultIfEmpty(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid refresh token"));
+    }
+
+    @Operation(summary = "Logout", description = "Revokes the given refresh token and the bearer access token, if present")
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<Void>> logout(@RequestBody(required = false) RefreshRequest refreshRequest,
+                                             @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false)
+                                             String authorizationHeader) {
+        if (refreshRequest != null) {
+            VerifiedToken refreshToken = verifyQuietly(refreshRequest.getRefreshToken());
+            if (refreshToken != null) {
+                tokenRevocationService.revokeToken(refreshToken);
+            }
+        }
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
+            VerifiedToken accessToken = verifyQuietly(authorizationHeader.substring(7));
+            if (accessToken != null) {
+                tokenRevocationService.revokeToken(accessToken);
+            }
+        }
+        return Mono.just(ResponseEntity.noContent().build());
+    }
+
+    private VerifiedToken verifyQuietly(String token) {
+        if (token == null) {
+            return null;
+        }
+        try {
+            return jwtUtil.verify(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
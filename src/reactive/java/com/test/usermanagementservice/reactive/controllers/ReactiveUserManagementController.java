@@ -0,0 +1,191 @@
+package com.test.usermanagementservice.reactive.controllers;
+
+import com.test.usermanagementservice.DTOs.AppUserDTO;
+import com.test.usermanagementservice.DTOs.AppUserPage;
+import com.test.usermanagementservice.models.AppUser;
+import com.test.usermanagementservice.reactive.models.UserRow;
+import com.test.usermanagementservice.reactive.service.ReactiveCustomUserDetailsService;
+import com.test.usermanagementservice.reactive.service.ReactiveUserRepository;
+import com.test.usermanagementservice.security.TokenRevocationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+@Tag(name = "User Management Controller", description = "Endpoints for user apis\n The apis requires Authorization header and jwt token of an already authenticated user(e.g admin)")
+@RestController
+@RequestMapping("/api/users")
+public class ReactiveUserManagementController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final ReactiveUserRepository userRepository;
+    private final R2dbcEntityTemplate template;
+    private final PasswordEncoder passwordEncoder;
+    private final Scheduler passwordHashingScheduler;
+    private final TokenRevocationService tokenRevocationService;
+    private final ReactiveCustomUserDetailsService userDetailsService;
+
+    public ReactiveUserManagementController(ReactiveUserRepository userRepository, R2dbcEntityTemplate template,
+                                            PasswordEncoder passwordEncoder, Scheduler passwordHashingScheduler,
+                                            TokenRevocationService tokenRevocationService,
+                                            ReactiveCustomUserDetailsService userDetailsService) {
+        this.userRepository = userRepository;
+        this.template = template;
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingScheduler = passwordHashingScheduler;
+        this.tokenRevocationService = tokenRevocationService;
+        this.userDetailsService = userDetailsService;
+    }
+
+    @Operation(summary = "Create a new user",
+            description = "Creates a new user with encoded password and returns the saved user object")
+    @PostMapping
+    public Mono<ResponseEntity<?>> createUser(@RequestBody UserRow user) {
+        if (user.getUsername() == null || user.getPassword() == null || user.getEmail() == null) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        user.setId(null);
+        user.setCreatedAt(LocalDateTime.now());
+        // BCrypt is CPU bound: keep it off the event loop
+        return Mono.fromCallable(() -> passwordEncoder.encode(user.getPassword()))
+                .subscribeOn(passwordHashingScheduler)
+                .flatMap(encoded -> {
+                    user.setPassword(encoded);
+                    return userRepository.save(user);
+                })
+                .<ResponseEntity<?>>map(savedUser -> {
+                    userDetailsService.evictUser(savedUser.getUsername());
+                    return ResponseEntity.ok(savedUser);
+                })
+                .onErrorResume(DataIntegrityViolationException.class, e ->
+                        Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).body("Username or email already in use")))
+                .onErrorResume(RejectedExecutionException.class, e ->
+                        Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                                .header(HttpHeaders.RETRY_AFTER, "1").build()));
+    }
+
+    @Operation(summary = "Retrieve user by ID", description = "Fetches a user's details based on the provided user ID")
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<UserRow>> getUser(@PathVariable Long id) {
+        return userRepository.findById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "List users",
+            description = "Returns users ordered by id, one page at a time. Pass the returned nextCursor as 'after' " +
+                    "to get the next page. Optional filters: role, username prefix and email domain")
+    @GetMapping
+    public Mono<AppUserPage> listUsers(@RequestParam(required = false) Long after,
+                                       @RequestParam(defaultValue = "20") int limit,
+                                       @RequestParam(required = false) String role,
+                                       @RequestParam(required = false) String usernamePrefix,
+                                       @RequestParam(required = false) String emailDomain) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Criteria criteria = Criteria.where("id").greaterThan(after == null ? 0L : after);
+        if (role != null) {
+            criteria = criteria.and("role").is(role);
+        }
+        if (usernamePrefix != null) {
+            criteria = criteria.and("username").like(escapeLike(usernamePrefix) + "%");
+        }
+        if (emailDomain != null) {
+            criteria = criteria.and("emailDomain").is(AppUser.normalizeEmailDomain(emailDomain));
+        }
+        // Fetch one extra row to know whether another page exists
+        return template.select(UserRow.class)
+                .matching(Query.query(criteria).sort(Sort.by("id")).limit(pageSize + 1))
+                .all()
+                .map(ReactiveUserManagementController::toDto)
+                .collectList()
+                .map(users -> {
+                    Long nextCursor = null;
+                    if (users.size() > pageSize) {
+                        users = users.subList(0, pageSize);
+                        nextCursor = users.get(pageSize - 1).getId();
+                    }
+                    return new AppUserPage(List.copyOf(users), nextCursor);
+                });
+    }
+
+    @Operation(summary = "Export all users",
+            description = "Streams every user as newline-delimited JSON, one object per line, in id order")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<AppUserDTO>> exportUsers() {
+        // Rows are pulled from the database only as fast as the client reads them
+        Flux<AppUserDTO> users = template.select(UserRow.class)
+                .matching(Query.empty().sort(Sort.by("id")))
+                .all()
+                .map(ReactiveUserManagementController::toDto);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.ndjson\"")
+                .body(users);
+    }
+
+    @Operation(summary = "Update an existing user",
+            description = "Replaces the username, email and role of the given user; all three are required")
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<?>> updateUser(@PathVariable Long id, @RequestBody UserRow updatedUser) {
+        if (updatedUser.getUsername() == null || updatedUser.getEmail() == null || updatedUser.getRole() == null) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return userRepository.findById(id)
+                .flatMap(user -> {
+                    String previousUsername = user.getUsername();
+                    long revokedBefore = tokenRevocationService.currentMark();
+                    user.setUsername(updatedUser.getUsername());
+                    user.setEmail(updatedUser.getEmail());
+                    user.setRole(updatedUser.getRole());
+                    user.setUpdatedAt(LocalDateTime.now());
+                    return userRepository.save(user)
+                            .<ResponseEntity<?>>map(saved -> {
+                                // Tokens carry the old username and role; cut them off once the change is saved
+                                tokenRevocationService.revokeUser(previousUsername, revokedBefore);
+                                userDetailsService.evictUser(previousUsername);
+                                userDetailsService.evictUser(saved.getUsername());
+                                return ResponseEntity.ok(saved);
+                            })
+                            .onErrorResume(DataIntegrityViolationException.class, e -> Mono.just(
+                                    ResponseEntity.status(HttpStatus.CONFLICT).body("Username or email already in use")));
+                })
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @Operation(summary = "Delete a user by ID", description = "Deletes a user from the system based on the provided ID")
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<String>> deleteUser(@PathVariable Long id) {
+        return userRepository.findById(id)
+                .flatMap(user -> userRepository.delete(user)
+                        .then(Mono.fromCallable(() -> {
+                            tokenRevocationService.revokeUser(user.getUsername());
+                            userDetailsService.evictUser(user.getUsername());
+                            return ResponseEntity.ok("User Deleted");
+                        })))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    private static AppUserDTO toDto(UserRow user) {
+        return new AppUserDTO(user.getId(), user.getUsername(), user.getEmail(), user.getRole());
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
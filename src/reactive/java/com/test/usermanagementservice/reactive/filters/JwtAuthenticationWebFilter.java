@@ -0,0 +1,104 @@
+package com.test.usermanagementservice.reactive.filters;
+
+import com.test.usermanagementservice.reactive.service.ReactiveCustomUserDetailsService;
+import com.test.usermanagementservice.security.TokenRevocationService;
+import com.test.usermanagementservice.security.VerifiedTokenCache;
+import com.test.usermanagementservice.util.JwtUtil;
+import com.test.usermanagementservice.util.VerifiedToken;
+import io.jsonwebtoken.JwtException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+// WebFlux counterpart of JwtAuthenticationFilter, sharing its token cache and revocation checks.
+// Verification is CPU only and runs inline; the user lookup (non-stateless mode) is a non-blocking R2DBC query.
+// Not a bean: WebFlux would also run every WebFilter bean outside the security chain (see ReactiveSecurityConfig).
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private static final byte[] UNAUTHORIZED_BODY =
+            "{\"error\": \"Unauthorized - Invalid or missing JWT token\"}".getBytes(StandardCharsets.UTF_8);
+    // RFC 6750 challenges, as the servlet filter sends
+    private static final String MISSING_TOKEN_CHALLENGE = "Bearer";
+    private static final String INVALID_TOKEN_CHALLENGE = "Bearer error=\"invalid_token\"";
+
+    private final JwtUtil jwtUtil;
+    private final ReactiveCustomUserDetailsService userDetailsService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final boolean stateless;
+
+    public JwtAuthenticationWebFilter(JwtUtil jwtUtil, ReactiveCustomUserDetailsService userDetailsService,
+                                      VerifiedTokenCache verifiedTokenCache,
+                                      TokenRevocationService tokenRevocationService,
+                                      boolean stateless) {
+        this.jwtUtil = jwtUtil;
+        this.userDetailsService = userDetailsService;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocationService = tokenRevocationService;
+        this.stateless = stateless;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String authorizationHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+
+        VerifiedToken verifiedToken;
+        try {
+            verifiedToken = verifiedTokenCache.get(authorizationHeader.substring(7), jwtUtil::verify);
+        } catch (JwtException | IllegalArgumentException e) {
+            return writeUnauthorized(exchange.getResponse(), INVALID_TOKEN_CHALLENGE);
+        }
+        if (verifiedToken.subject() == null || verifiedToken.isRefreshToken() || (stateless
+                ? tokenRevocationService.isRevoked(verifiedToken)
+                : tokenRevocationService.isTokenRevoked(verifiedToken))) {
+            return writeUnauthorized(exchange.getResponse(), INVALID_TOKEN_CHALLENGE);
+        }
+
+        Mono<Authentication> authentication = stateless
+                // Trust the signed role claim
+                ? Mono.just(new UsernamePasswordAuthenticationToken(verifiedToken.subject(), null,
+                        verifiedToken.role() == null ? Collections.emptyList()
+                                : List.of(new SimpleGrantedAuthority(verifiedToken.role()))))
+                : userDetailsService.findByUsername(verifiedToken.subject())
+                        .map(userDetails -> new UsernamePasswordAuthenticationToken(
+                                userDetails.getUsername(), null, userDetails.getAuthorities()));
+
+        return authentication
+                .map(auth -> chain.filter(exchange)
+                        .contextWrite(ReactiveSecurityContextHolder.withAuthentication(auth)))
+                // The user was deleted after the token was issued
+                .defaultIfEmpty(Mono.defer(() -> writeUnauthorized(exchange.getResponse(), INVALID_TOKEN_CHALLENGE)))
+                .flatMap(Function.identity());
+    }
+
+    // Also the security chain's entry point for requests without a token (see ReactiveSecurityConfig)
+    public static Mono<Void> writeUnauthorized(ServerHttpResponse response) {
+        return writeUnauthorized(response, MISSING_TOKEN_CHALLENGE);
+    }
+
+    private static Mono<Void> writeUnauthorized(ServerHttpResponse response, String challenge) {
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().set(HttpHeaders.WWW_AUTHENTICATE, challenge);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer body = response.bufferFactory().wrap(UNAUTHORIZED_BODY);
+        return response.writeWith(Mono.just(body));
+    }
+}
@@ -0,0 +1,46 @@
+package com.test.usermanagementservice.reactive.models;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.test.usermanagementservice.models.AppUser;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+// R2DBC mapping of the app_user table; serializes like AppUser
+@Table("app_user")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserRow {
+
+    @Id
+    @JsonIgnore
+    private Long id;
+
+    private String username;
+    private String password;
+    private String email;
+    // See AppUser.emailDomain
+    @JsonIgnore
+    private String emailDomain;
+    private String role;
+    @JsonIgnore
+    private LocalDateTime createdAt;
+    @JsonIgnore
+    private LocalDateTime updatedAt;
+
+    public UserRow(String username, String password, String role) {
+        this.username = username;
+        this.password = password;
+        this.role = role;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+        this.emailDomain = AppUser.emailDomainOf(email);
+    }
+}
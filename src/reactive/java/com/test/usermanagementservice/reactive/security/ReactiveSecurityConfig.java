@@ -0,0 +1,83 @@
+package com.test.usermanagementservice.reactive.security;
+
+import com.test.usermanagementservice.reactive.filters.JwtAuthenticationWebFilter;
+import com.test.usermanagementservice.reactive.service.ReactiveCustomUserDetailsService;
+import com.test.usermanagementservice.security.SecurityConfig;
+import com.test.usermanagementservice.security.TokenRevocationService;
+import com.test.usermanagementservice.security.VerifiedTokenCache;
+import com.test.usermanagementservice.util.JwtUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+
+    @Value("${security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, JwtUtil jwtUtil,
+                                                         ReactiveCustomUserDetailsService userDetailsService,
+                                                         VerifiedTokenCache verifiedTokenCache,
+                                                         TokenRevocationService tokenRevocationService,
+                                                         @Value("${jwt.stateless:false}") boolean stateless) {
+        JwtAuthenticationWebFilter jwtFilter = new JwtAuthenticationWebFilter(jwtUtil, userDetailsService,
+                verifiedTokenCache, tokenRevocationService, stateless);
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .logout(ServerHttpSecurity.LogoutSpec::disable)
+                // Stateless, as in the servlet app: the JWT filter authenticates every request
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchange -> exchange
+                        .pathMatchers("/api/auth/login", "/api/auth/refresh", "/api/auth/logout").permitAll()
+                        .anyExchange().authenticated())
+                // Requests without a token get the same 401 and Bearer challenge as in the servlet app
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint((exchange, e) ->
+                                JwtAuthenticationWebFilter.writeUnauthorized(exchange.getResponse())))
+                .addFilterAt(jwtFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return SecurityConfig.delegatingPasswordEncoder(bcryptStrength);
+    }
+
+    // BCrypt never runs on an event-loop thread. The scheduler is capped like the servlet app's hashing
+    // pool: once its threads and queue are full, work is rejected and login answers 503
+    @Bean(destroyMethod = "dispose")
+    public Scheduler passwordHashingScheduler(
+            @Value("${security.password.hashing-threads:0}") int threads,
+            @Value("${security.password.hashing-queue-capacity:64}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return Schedulers.newBoundedElastic(poolSize, Math.max(1, queueCapacity), "password-hash");
+    }
+
+    @Bean
+    public ReactiveAuthenticationManager authenticationManager(ReactiveCustomUserDetailsService userDetailsService,
+                                                               PasswordEncoder passwordEncoder,
+                                                               Scheduler passwordHashingScheduler) {
+        UserDetailsRepositoryReactiveAuthenticationManager authenticationManager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(userDetailsService);
+        authenticationManager.setPasswordEncoder(passwordEncoder);
+        authenticationManager.setScheduler(passwordHashingScheduler);
+        // Rehash on successful login when the stored hash is outdated or uses a different cost
+        authenticationManager.setUserDetailsPasswordService(userDetailsService);
+        return authenticationManager;
+    }
+}
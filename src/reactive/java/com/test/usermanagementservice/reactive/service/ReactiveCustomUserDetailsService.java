@@ -0,0 +1,61 @@
+package com.test.usermanagementservice.reactive.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.test.usermanagementservice.reactive.models.UserRow;
+import com.test.usermanagementservice.security.AppUserDetails;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+
+@Service
+public class ReactiveCustomUserDetailsService implements ReactiveUserDetailsService, ReactiveUserDetailsPasswordService {
+
+    private final ReactiveUserRepository userRepository;
+    // Same sizing and expiry as the servlet app's userDetails cache. Concurrent misses for one
+    // username share a single in-flight query instead of each hitting the database
+    private final AsyncCache<String, UserDetails> userDetailsCache;
+
+    public ReactiveCustomUserDetailsService(ReactiveUserRepository userRepository,
+                                            @Value("${spring.cache.caffeine.spec:maximumSize=10000,expireAfterWrite=5m}")
+                                            String cacheSpec) {
+        this.userRepository = userRepository;
+        this.userDetailsCache = Caffeine.from(cacheSpec).buildAsync();
+    }
+
+    // Empty when the user does not exist
+    @Override
+    public Mono<UserDetails> findByUsername(String username) {
+        return Mono.fromFuture(() -> userDetailsCache.get(username, (key, executor) ->
+                        userRepository.findByUsername(key).map(ReactiveCustomUserDetailsService::toUserDetails).toFuture()),
+                        true) // Cancelling one subscriber must not cancel the shared load
+                // Hand out a copy, like the servlet service, so no caller can alter the cached instance
+                .map(userDetails -> AppUserDetails.copyOf(userDetails, userDetails.getPassword()));
+    }
+
+    // Stores a re-encoded hash after a successful login
+    @Override
+    public Mono<UserDetails> updatePassword(UserDetails user, String newPassword) {
+        return userRepository.updatePassword(user.getUsername(), newPassword)
+                .doOnSuccess(updated -> evictUser(user.getUsername()))
+                .thenReturn(AppUserDetails.copyOf(user, newPassword));
+    }
+
+    // Called on every user mutation so role changes and deletions are seen on the next request
+    public void evictUser(String username) {
+        if (username != null) {
+            userDetailsCache.synchronous().invalidate(username);
+        }
+    }
+
+    private static UserDetails toUserDetails(UserRow user) {
+        return new AppUserDetails(user.getId(), user.getUsername(), user.getPassword(),
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole())));
+    }
+}
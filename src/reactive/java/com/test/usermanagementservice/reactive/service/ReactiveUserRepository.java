@@ -0,0 +1,16 @@
+package com.test.usermanagementservice.reactive.service;
+
+import com.test.usermanagementservice.reactive.models.UserRow;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveUserRepository extends ReactiveCrudRepository<UserRow, Long> {
+
+    Mono<UserRow> findByUsername(String username);
+
+    @Modifying
+    @Query("update app_user set password = :password where username = :username")
+    Mono<Integer> updatePassword(String username, String password);
+}
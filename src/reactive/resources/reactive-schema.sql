@@ -0,0 +1,14 @@
+create table if not exists app_user (
+    id bigint generated by default as identity primary key,
+    username varchar(255),
+    password varchar(255),
+    email varchar(255),
+    email_domain varchar(255),
+    role varchar(255),
+    created_at timestamp,
+    updated_at timestamp
+);
+create unique index if not exists ux_app_user_username on app_user (username);
+create unique index if not exists ux_app_user_email on app_user (email);
+create index if not exists ix_app_user_role_id on app_user (role, id);
+create index if not exists ix_app_user_email_domain_id on app_user (email_domain, id);
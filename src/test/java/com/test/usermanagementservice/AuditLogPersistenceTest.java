@@ -0,0 +1,88 @@
+package com.test.usermanagementservice;
+
+import com.test.usermanagementservice.audit.AuditAction;
+import com.test.usermanagementservice.audit.AuditLog;
+import com.test.usermanagementservice.cacheconfig.HibernateCacheConfig;
+import com.test.usermanagementservice.models.AuditLogEntry;
+import com.test.usermanagementservice.service.AuditLogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// AuditLog against the real audit_log table; the flusher commits its own transactions
+@DataJpaTest
+@Import(HibernateCacheConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AuditLogPersistenceTest {
+
+    @Autowired
+    private AuditLogRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void cleanUp() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void oversizedLoginUsername_shouldBeTruncatedAndNotCostTheBatch() throws InterruptedException {
+        AuditLog auditLog = auditLog();
+        String hugeUsername = "x".repeat(10_000);
+
+        auditLog.record(AuditAction.USER_CREATED, "admin", "1", "success");
+        auditLog.record(AuditAction.LOGIN, hugeUsername, "10.0.0.1", "throttled");
+        auditLog.record(AuditAction.USER_DELETED, "admin", "2", "success");
+        auditLog.close();
+
+        List<AuditLogEntry> entries = sortedEntries();
+        assertEquals(List.of(AuditAction.USER_CREATED, AuditAction.LOGIN, AuditAction.USER_DELETED),
+                entries.stream().map(AuditLogEntry::getAction).toList());
+        assertEquals(AuditLogEntry.ACTOR_LENGTH, entries.get(1).getActor().length());
+        assertEquals(3, count("written"));
+    }
+
+    @Test
+    void badRow_shouldOnlyLoseItself() throws InterruptedException {
+        AuditLog auditLog = auditLog();
+
+        auditLog.record(AuditAction.USER_CREATED, "admin", "1", "success");
+        // outcome is not nullable, so this row fails the batch insert
+        auditLog.record(AuditAction.USER_UPDATED, "admin", "1", null);
+        auditLog.record(AuditAction.USER_DELETED, "admin", "1", "success");
+        auditLog.close();
+
+        assertEquals(List.of(AuditAction.USER_CREATED, AuditAction.USER_DELETED),
+                sortedEntries().stream().map(AuditLogEntry::getAction).toList());
+        assertEquals(1, count("failed"));
+        assertEquals(2, count("written"));
+    }
+
+    private AuditLog auditLog() {
+        return new AuditLog(repository, transactionManager, meterRegistry,
+                64, 10, Duration.ofHours(1), AuditLog.OverflowPolicy.DROP, Duration.ZERO);
+    }
+
+    private List<AuditLogEntry> sortedEntries() {
+        return repository.findAll().stream().sorted(Comparator.comparing(AuditLogEntry::getId)).toList();
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("audit.events").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,186 @@
+package com.test.usermanagementservice;
+
+import com.test.usermanagementservice.audit.AuditAction;
+import com.test.usermanagementservice.audit.AuditLog;
+import com.test.usermanagementservice.models.AuditLogEntry;
+import com.test.usermanagementservice.service.AuditLogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+class AuditLogTest {
+
+    private final List<List<AuditLogEntry>> batches = new CopyOnWriteArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AuditLogRepository repository;
+    private AuditLog auditLog;
+
+    @BeforeEach
+    void setUp() {
+        repository = Mockito.mock(AuditLogRepository.class);
+        when(repository.saveAll(any())).thenAnswer(invocation -> {
+            List<AuditLogEntry> batch = new ArrayList<>();
+            invocation.<Iterable<AuditLogEntry>>getArgument(0).forEach(batch::add);
+            batches.add(batch);
+            return batch;
+        });
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        auditLog.close();
+    }
+
+    @Test
+    void record_shouldFlushFullBatchesWithoutWaitingForTheInterval() throws InterruptedException {
+        auditLog = auditLog(1024, 10, Duration.ofHours(1), AuditLog.OverflowPolicy.DROP);
+
+        for (int i = 0; i < 25; i++) {
+            auditLog.record(AuditAction.USER_CREATED, "admin", String.valueOf(i), "success");
+        }
+
+        awaitBatches(2);
+        assertEquals(10, batches.get(0).size());
+        assertEquals(10, batches.get(1).size());
+        assertEquals("0", batches.get(0).get(0).getTarget());
+        assertEquals(AuditAction.USER_CREATED, batches.get(0).get(0).getAction());
+
+        // The rest is written on shutdown
+        auditLog.close();
+        assertEquals(3, batches.size());
+        assertEquals(5, batches.get(2).size());
+        assertEquals(25, count("written"));
+    }
+
+    @Test
+    void record_shouldFlushPartialBatchAfterTheInterval() throws InterruptedException {
+        auditLog = auditLog(1024, 100, Duration.ofMillis(50), AuditLog.OverflowPolicy.DROP);
+
+        auditLog.record(AuditAction.LOGIN, "john", "10.0.0.1", "invalid_credentials");
+        auditLog.record(AuditAction.LOGIN, "john", "10.0.0.1", "success");
+
+        awaitBatches(1);
+        assertEquals(2, batches.get(0).size());
+        assertEquals("invalid_credentials", batches.get(0).get(0).getOutcome());
+        awaitWritten(2);
+        assertTrue(meterRegistry.get("audit.lag").timer().count() >= 2);
+    }
+
+    @Test
+    void record_whenBufferIsFull_shouldDropWithoutBlocking() throws InterruptedException {
+        CountDownLatch release = blockWrites();
+        auditLog = auditLog(4, 1, Duration.ofMillis(10), AuditLog.OverflowPolicy.DROP);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            auditLog.record(AuditAction.USER_DELETED, "admin", String.valueOf(i), "success");
+        }
+        long elapsed = System.nanoTime() - start;
+        release.countDown();
+
+        assertTrue(count("dropped") >= 100 - 4 - 1, "dropped " + count("dropped"));
+        assertTrue(elapsed < TimeUnit.SECONDS.toNanos(1));
+        auditLog.close();
+        assertEquals(100, count("dropped") + count("written"));
+    }
+
+    @Test
+    void record_withWaitPolicy_shouldWaitForRoomUpToMaxWait() throws InterruptedException {
+        CountDownLatch release = blockWrites();
+        auditLog = auditLog(4, 1, Duration.ofMillis(10), AuditLog.OverflowPolicy.WAIT);
+
+        for (int i = 0; i < 10; i++) {
+            auditLog.record(AuditAction.USER_UPDATED, "admin", String.valueOf(i), "success");
+        }
+        assertTrue(count("dropped") > 0);
+
+        // Once the writer catches up, waiting callers get in
+        release.countDown();
+        awaitBatches(5);
+        double droppedBefore = count("dropped");
+        for (int i = 0; i < 10; i++) {
+            auditLog.record(AuditAction.USER_UPDATED, "admin", String.valueOf(i), "success");
+        }
+        assertEquals(droppedBefore, count("dropped"));
+    }
+
+    @Test
+    void record_whenBatchWriteFails_shouldRetryEventsOneByOne() throws InterruptedException {
+        doThrow(new IllegalStateException("constraint violation"))
+                .doAnswer(invocation -> {
+                    batches.add(List.of());
+                    return List.of();
+                })
+                .when(repository).saveAll(any());
+        // Only the event with target 1 is bad
+        when(repository.save(any())).thenAnswer(invocation -> {
+            AuditLogEntry entry = invocation.getArgument(0);
+            if (entry.getTarget().equals("1")) {
+                throw new IllegalStateException("constraint violation");
+            }
+            return entry;
+        });
+        auditLog = auditLog(1024, 2, Duration.ofHours(1), AuditLog.OverflowPolicy.DROP);
+
+        for (int i = 0; i < 4; i++) {
+            auditLog.record(AuditAction.USER_CREATED, "admin", String.valueOf(i), "success");
+        }
+
+        awaitWritten(3);
+        assertEquals(1, count("failed"));
+        assertEquals(3, count("written"));
+    }
+
+    private AuditLog auditLog(int capacity, int batchSize, Duration flushInterval, AuditLog.OverflowPolicy policy) {
+        return new AuditLog(repository, Mockito.mock(PlatformTransactionManager.class), meterRegistry,
+                capacity, batchSize, flushInterval, policy, Duration.ofMillis(200));
+    }
+
+    // Makes the first write hang until the returned latch is released
+    private CountDownLatch blockWrites() {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            batches.add(List.of());
+            return List.of();
+        }).when(repository).saveAll(any());
+        return release;
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("audit.events").tag("result", result).counter().count();
+    }
+
+    private void awaitBatches(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (batches.size() < count) {
+            assertTrue(System.nanoTime() < deadline, "batches written: " + batches.size());
+            Thread.sleep(5);
+        }
+    }
+
+    // Metrics are recorded after the repository call returns, so they trail the batches list
+    private void awaitWritten(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count("written") < count) {
+            assertTrue(System.nanoTime() < deadline, "events written: " + count("written"));
+            Thread.sleep(5);
+        }
+    }
+}
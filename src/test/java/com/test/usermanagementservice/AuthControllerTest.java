@@ -5,8 +5,13 @@ import com.test.usermanagementservice.DTOs.AuthRequest;
 import com.test.usermanagementservice.DTOs.AuthResponse;
 import com.test.usermanagementservice.controllers.AuthController;
 import com.test.usermanagementservice.filters.JwtAuthenticationFilter;
+import com.test.usermanagementservice.audit.AuditLog;
+import com.test.usermanagementservice.invalidation.InvalidationBus;
+import com.test.usermanagementservice.security.LoginThrottle;
+import com.test.usermanagementservice.security.TokenRevocationService;
 import com.test.usermanagementservice.service.CustomUserDetailsService;
 import com.test.usermanagementservice.util.JwtUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
@@ -14,6 +19,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -30,6 +36,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @RunWith(SpringJUnit4ClassRunner.class)
 @WebMvcTest(AuthController.class)
+@Import(SimpleMeterRegistry.class)
 class AuthControllerTest {
 
     @Autowired
@@ -44,6 +51,18 @@ class AuthControllerTest {
     @MockBean
     private CustomUserDetailsService userDetailsService;
 
+    @MockBean
+    private TokenRevocationService tokenRevocationService;
+
+    @MockBean
+    private LoginThrottle loginThrottle;
+
+    @MockBean
+    private InvalidationBus invalidationBus;
+
+    @MockBean
+    private AuditLog auditLog;
+
     @MockBean
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
@@ -0,0 +1,81 @@
+package com.test.usermanagementservice;
+
+import com.test.usermanagementservice.invalidation.InvalidationBus;
+import com.test.usermanagementservice.models.UserCredentials;
+import com.test.usermanagementservice.service.CustomUserDetailsService;
+import com.test.usermanagementservice.service.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CustomUserDetailsServiceTest {
+
+    private UserRepository userRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private CustomUserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = Mockito.mock(UserRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        userDetailsService = new CustomUserDetailsService(userRepository,
+                new ConcurrentMapCacheManager(CustomUserDetailsService.USER_DETAILS_CACHE), meterRegistry,
+                new StaticListableBeanFactory().getBeanProvider(InvalidationBus.class));
+    }
+
+    @Test
+    void loadUserByUsername_shouldQueryRepositoryOnlyOnce() {
+        when(userRepository.findCredentialsByUsername("john"))
+                .thenReturn(Optional.of(new UserCredentials(1L, "john", "hash", "USER")));
+
+        userDetailsService.loadUserByUsername("john");
+        UserDetails userDetails = userDetailsService.loadUserByUsername("john");
+
+        assertEquals("ROLE_USER", userDetails.getAuthorities().iterator().next().getAuthority());
+        verify(userRepository, times(1)).findCredentialsByUsername("john");
+        assertEquals(1, meterRegistry.get("user.lookup").tags("source", "database", "outcome", "found").timer().count());
+        assertEquals(1, meterRegistry.get("user.lookup").tag("source", "cache").timer().count());
+    }
+
+    @Test
+    void loadUserByUsername_shouldNotExposeCachedInstanceToCredentialErasure() {
+        when(userRepository.findCredentialsByUsername("john"))
+                .thenReturn(Optional.of(new UserCredentials(1L, "john", "hash", "USER")));
+
+        ((CredentialsContainer) userDetailsService.loadUserByUsername("john")).eraseCredentials();
+
+        assertEquals("hash", userDetailsService.loadUserByUsername("john").getPassword());
+    }
+
+    @Test
+    void evictUser_shouldReloadChangedRole() {
+        when(userRepository.findCredentialsByUsername("john"))
+                .thenReturn(Optional.of(new UserCredentials(1L, "john", "hash", "USER")))
+                .thenReturn(Optional.of(new UserCredentials(1L, "john", "hash", "ADMIN")));
+        userDetailsService.loadUserByUsername("john");
+
+        userDetailsService.evictUser("john");
+
+        UserDetails userDetails = userDetailsService.loadUserByUsername("john");
+        assertEquals("ROLE_ADMIN", userDetails.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void loadUserByUsername_shouldNotCacheMissingUsers() {
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+
+        verify(userRepository, times(2)).findCredentialsByUsername("ghost");
+    }
+}
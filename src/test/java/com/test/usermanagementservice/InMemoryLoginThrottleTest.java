@@ -0,0 +1,109 @@
+package com.test.usermanagementservice;
+
+import com.test.usermanagementservice.security.InMemoryLoginThrottle;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryLoginThrottleTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private InMemoryLoginThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        // 3 attempts per username (one more per minute), 5 per address (one more per second)
+        throttle = new InMemoryLoginThrottle(3, Duration.ofMinutes(1), 5, Duration.ofSeconds(1),
+                1000, new SimpleMeterRegistry(), nanos::get);
+    }
+
+    @Test
+    void tryAcquire_shouldLockUsernameAfterCapacityUntilRefill() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, throttle.tryAcquire("john", "10.0.0." + i));
+        }
+
+        assertEquals(60_000, throttle.tryAcquire("john", "10.0.0.9"));
+        // Other users are not affected
+        assertEquals(0, throttle.tryAcquire("jane", "10.0.0.9"));
+
+        advance(Duration.ofSeconds(30));
+        assertEquals(30_000, throttle.tryAcquire("john", "10.0.0.9"));
+        advance(Duration.ofSeconds(30));
+        assertEquals(0, throttle.tryAcquire("john", "10.0.0.9"));
+    }
+
+    @Test
+    void tryAcquire_shouldLimitClientAddressAcrossUsernames() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, throttle.tryAcquire("user" + i, "10.0.0.1"));
+        }
+
+        assertEquals(1000, throttle.tryAcquire("user9", "10.0.0.1"));
+        assertEquals(0, throttle.tryAcquire("user9", "10.0.0.2"));
+    }
+
+    @Test
+    void tryAcquire_whenClientIsThrottled_shouldNotUseUpUsernameTokens() {
+        for (int i = 0; i < 5; i++) {
+            throttle.tryAcquire("user" + i, "10.0.0.1");
+        }
+        for (int i = 0; i < 10; i++) {
+            assertTrue(throttle.tryAcquire("john", "10.0.0.1") > 0);
+        }
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, throttle.tryAcquire("john", "10.0.0.2"));
+        }
+    }
+
+    @Test
+    void reset_shouldRefillUsernameBucket() {
+        for (int i = 0; i < 3; i++) {
+            throttle.tryAcquire("john", "10.0.0." + i);
+        }
+
+        throttle.reset("john");
+
+        assertEquals(0, throttle.tryAcquire("john", "10.0.0.9"));
+    }
+
+    @Test
+    void tryAcquire_shouldHandOutExactlyCapacityTokensUnderContention() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger allowed = new AtomicInteger();
+        for (int i = 0; i < 100; i++) {
+            String address = "10.0.1." + i;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (throttle.tryAcquire("john", address) == 0) {
+                    allowed.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(3, allowed.get());
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+}
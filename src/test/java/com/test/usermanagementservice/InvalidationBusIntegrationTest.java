@@ -0,0 +1,102 @@
+package com.test.usermanagementservice;
+
+import com.test.usermanagementservice.DTOs.AppUserPatch;
+import com.test.usermanagementservice.controllers.UserManagementController;
+import com.test.usermanagementservice.models.AppUser;
+import com.test.usermanagementservice.security.TokenRevocationService;
+import com.test.usermanagementservice.service.CustomUserDetailsService;
+import com.test.usermanagementservice.service.UserRepository;
+import com.test.usermanagementservice.util.VerifiedToken;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.Date;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two nodes in one JVM sharing a database, each with its own user details, revocation and second-level caches
+class InvalidationBusIntegrationTest {
+
+    private static final long MAX_DELAY_MILLIS = 2000;
+
+    private ConfigurableApplicationContext nodeA;
+    private ConfigurableApplicationContext nodeB;
+
+    @BeforeEach
+    void startNodes() {
+        String database = "jdbc:h2:mem:invalidation-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        nodeA = startNode(database);
+        nodeB = startNode(database);
+    }
+
+    @AfterEach
+    void stopNodes() {
+        nodeB.close();
+        nodeA.close();
+    }
+
+    @Test
+    void roleChangeOnOneNode_shouldBeSeenOnTheOther() {
+        AppUser user = nodeB.getBean(UserRepository.class).findByUsername("user");
+        // Warm node B's caches
+        assertEquals("ROLE_USER", role(nodeB, "user"));
+        assertEquals("USER", nodeB.getBean(UserRepository.class).findById(user.getId()).orElseThrow().getRole());
+        VerifiedToken token = new VerifiedToken("user", "USER", new Date(System.currentTimeMillis() - 5000),
+                new Date(System.currentTimeMillis() + 60_000), UUID.randomUUID().toString(), "access", null);
+        assertFalse(nodeB.getBean(TokenRevocationService.class).isRevoked(token));
+
+        assertEquals(HttpStatus.NO_CONTENT, nodeA.getBean(UserManagementController.class)
+                .patchUser(user.getId(), new AppUserPatch(null, null, "ADMIN"), null).getStatusCode());
+
+        awaitTrue(() -> "ROLE_ADMIN".equals(role(nodeB, "user")));
+        assertEquals("ADMIN", nodeB.getBean(UserRepository.class).findById(user.getId()).orElseThrow().getRole());
+        assertTrue(nodeB.getBean(TokenRevocationService.class).isRevoked(token));
+    }
+
+    @Test
+    void deleteOnOneNode_shouldBeSeenOnTheOther() {
+        AppUser user = nodeB.getBean(UserRepository.class).findByUsername("user");
+        assertEquals("ROLE_USER", role(nodeB, "user"));
+
+        assertEquals(HttpStatus.OK,
+                nodeA.getBean(UserManagementController.class).deleteUser(user.getId()).getStatusCode());
+
+        awaitTrue(() -> nodeB.getBean(UserRepository.class).findById(user.getId()).isEmpty());
+        assertThrows(UsernameNotFoundException.class, () -> role(nodeB, "user"));
+    }
+
+    private static ConfigurableApplicationContext startNode(String database) {
+        return new SpringApplicationBuilder(UsermanagementserviceApplication.class)
+                .properties("server.port=0",
+                        "spring.datasource.url=" + database,
+                        "spring.autoconfigure.exclude=" +
+                                "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration")
+                .run();
+    }
+
+    private static String role(ConfigurableApplicationContext node, String username) {
+        return node.getBean(CustomUserDetailsService.class).loadUserByUsername(username)
+                .getAuthorities().iterator().next().getAuthority();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + MAX_DELAY_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline,
+                    "not seen on the other node within " + MAX_DELAY_MILLIS + " ms");
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.test.usermanagementservice;
+
+import com.test.usermanagementservice.filters.JwtAuthenticationFilter;
+import com.test.usermanagementservice.security.TokenRevocationService;
+import com.test.usermanagementservice.security.VerifiedTokenCache;
+import com.test.usermanagementservice.service.CustomUserDetailsService;
+import com.test.usermanagementservice.util.JwtUtil;
+import com.test.usermanagementservice.util.TokenValidation;
+import com.test.usermanagementservice.util.VerifiedToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    private JwtUtil jwtUtil;
+    private CustomUserDetailsService userDetailsService;
+    private TokenRevocationService tokenRevocationService;
+    private SimpleMeterRegistry meterRegistry;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = Mockito.mock(JwtUtil.class);
+        when(jwtUtil.getExpirationTime()).thenReturn(86400000L);
+        userDetailsService = Mockito.mock(CustomUserDetailsService.class);
+        tokenRevocationService = new TokenRevocationService(jwtUtil);
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService,
+                new VerifiedTokenCache(100, new SimpleMeterRegistry()), tokenRevocationService, meterRegistry, true);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void statelessMode_shouldTakeAuthoritiesFromClaimsWithoutUserLookup() throws Exception {
+        when(jwtUtil.validate(TOKEN)).thenReturn(TokenValidation.valid(tokenIssuedSecondsAgo(60)));
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(bearerRequest(), new MockHttpServletResponse(), chain);
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals("john", authentication.getName());
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_USER")), List.copyOf(authentication.getAuthorities()));
+        assertNotNull(chain.getRequest());
+        verify(userDetailsService, never()).loadUserByUsername(any());
+        assertEquals(1, meterRegistry.get("jwt.verify").tag("outcome", "valid").timer().count());
+        assertEquals(1, meterRegistry.get("jwt.authentication").tag("outcome", "authenticated").counter().count());
+    }
+
+    @Test
+    void statelessMode_shouldRejectTokensIssuedBeforeRevocation() throws Exception {
+        when(jwtUtil.validate(TOKEN)).thenReturn(TokenValidation.valid(tokenIssuedSecondsAgo(60)));
+        tokenRevocationService.revokeUser("john");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(bearerRequest(), response, chain);
+
+        assertEquals(401, response.getStatus());
+        assertNull(chain.getRequest());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals(1, meterRegistry.get("jwt.authentication").tag("outcome", "revoked").counter().count());
+    }
+
+    @Test
+    void shouldRejectRefreshTokensUsedAsAccessTokens() throws Exception {
+        long now = System.currentTimeMillis();
+        when(jwtUtil.validate(TOKEN)).thenReturn(TokenValidation.valid(new VerifiedToken("john", null,
+                new Date(now), new Date(now + 3600_000), "jti-2", JwtUtil.REFRESH_TOKEN, 1L)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(bearerRequest(), response, new MockFilterChain());
+
+        assertEquals(401, response.getStatus());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void databaseMode_shouldRejectLoggedOutTokens() throws Exception {
+        JwtAuthenticationFilter databaseFilter = new JwtAuthenticationFilter(jwtUtil, userDetailsService,
+                new VerifiedTokenCache(100, new SimpleMeterRegistry()), tokenRevocationService, meterRegistry, false);
+        VerifiedToken token = tokenIssuedSecondsAgo(60);
+        when(jwtUtil.validate(TOKEN)).thenReturn(TokenValidation.valid(token));
+        tokenRevocationService.revokeToken(token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        databaseFilter.doFilter(bearerRequest(), response, new MockFilterChain());
+
+        assertEquals(401, response.getStatus());
+        verify(userDetailsService, never()).loadUserByUsername(any());
+    }
+
+    @Test
+    void publicPaths_shouldSkipTokenWork() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/swagger-ui/index.html");
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(jwtUtil, never()).validate(any());
+    }
+
+    @Test
+    void shouldRejectMalformedTokens() throws Exception {
+        when(jwtUtil.validate(TOKEN)).thenReturn(TokenValidation.MALFORMED);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(bearerRequest(), response, chain);
+
+        assertEquals(401, response.getStatus());
+        assertNull(chain.getRequest());
+        assertEquals("{\"error\": \"Unauthorized - Invalid or missing JWT token\"}", response.getContentAsString());
+        assertEquals(response.getContentAsByteArray().length, response.getContentLength());
+        assertEquals(1, meterRegistry.get("jwt.authentication").tag("outcome", "malformed").counter().count());
+    }
+
+    @Test
+    void shouldRejectExpiredAndBadlySignedTokensWithTheirOwnChallenge() throws Exception {
+        when(jwtUtil.validate(TOKEN)).thenReturn(TokenValidation.EXPIRED);
+        MockHttpServletResponse expired = new MockHttpServletResponse();
+        filter.doFilter(bearerRequest(), expired, new MockFilterChain());
+
+        when(jwtUtil.validate(TOKEN)).thenReturn(TokenValidation.BAD_SIGNATURE);
+        MockHttpServletResponse badSignature = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(bearerRequest(), badSignature, chain);
+
+        assertEquals(401, expired.getStatus());
+        assertEquals("Bearer error=\"invalid_token\", error_description=\"The token expired\"",
+                expired.getHeader("WWW-Authenticate"));
+        assertEquals(401, badSignature.getStatus());
+        assertEquals("Bearer error=\"invalid_token\", error_description=\"The token signature is invalid\"",
+                badSignature.getHeader("WWW-Authenticate"));
+        assertNull(chain.getRequest());
+        assertEquals(1, meterRegistry.get("jwt.authentication").tag("outcome", "expired").counter().count());
+        assertEquals(1, meterRegistry.get("jwt.authentication").tag("outcome", "bad_signature").counter().count());
+        assertEquals(1, meterRegistry.get("jwt.verify").tag("outcome", "expired").timer().count());
+    }
+
+    private static MockHttpServletRequest bearerRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/1");
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+        return request;
+    }
+
+    private static VerifiedToken tokenIssuedSecondsAgo(long seconds) {
+        long now = System.currentTimeMillis();
+        return new VerifiedToken("john", "ROLE_USER", new Date(now - seconds * 1000), new Date(now + 3600_000),
+                "jti-1", JwtUtil.ACCESS_TOKEN, null);
+    }
+}
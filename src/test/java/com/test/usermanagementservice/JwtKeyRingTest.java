@@ -0,0 +1,145 @@
+package com.test.usermanagementservice;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.test.usermanagementservice.controllers.JwksController;
+import com.test.usermanagementservice.security.JwtKeyRing;
+import com.test.usermanagementservice.util.JwtUtil;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigInteger;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class JwtKeyRingTest {
+
+    private static final String SECRET = "954hYQHv3qTi+FxsSosy7AITQfrbpqBgFGmXpyyqRvo=";
+    private static final Duration TTL = Duration.ofMinutes(15);
+    private static final Duration REFRESH_TTL = Duration.ofDays(7);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void hs256_shouldAcceptTokensWithoutKeyIdAndPublishNoKeys() throws Exception {
+        JwtKeyRing keyRing = new JwtKeyRing("HS256", SECRET, Duration.ofDays(1));
+        JwtUtil jwtUtil = new JwtUtil(keyRing, TTL, REFRESH_TTL);
+        String legacyToken = Jwts.builder()
+                .setSubject("john")
+                .claim("role", "ROLE_USER")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertEquals("john", jwtUtil.extractUsername(legacyToken));
+        assertEquals("john", jwtUtil.extractUsername(jwtUtil.generateToken("john", "ROLE_USER")));
+        assertEquals(0, objectMapper.readTree(keyRing.jwks().json()).get("keys").size());
+    }
+
+    @Test
+    void rs256_shouldKeepVerifyingTokensSignedBeforeRotation() throws Exception {
+        JwtKeyRing keyRing = new JwtKeyRing("RS256", SECRET, Duration.ofDays(1));
+        JwtUtil jwtUtil = new JwtUtil(keyRing, TTL, REFRESH_TTL);
+        String before = jwtUtil.generateToken("john", "ROLE_USER");
+        String etagBefore = keyRing.jwks().etag();
+
+        keyRing.rotate();
+        String after = jwtUtil.generateToken("jane", "ROLE_ADMIN");
+
+        assertEquals("john", jwtUtil.verify(before).subject());
+        assertEquals("jane", jwtUtil.verify(after).subject());
+        assertNotEquals(kid(before), kid(after));
+        assertNotEquals(etagBefore, keyRing.jwks().etag());
+        // Retired, active and the pre-published next key
+        assertEquals(3, objectMapper.readTree(keyRing.jwks().json()).get("keys").size());
+    }
+
+    @Test
+    void rs256_shouldPublishKeysThatVerifyIssuedTokens() throws Exception {
+        JwtKeyRing keyRing = new JwtKeyRing("RS256", SECRET, Duration.ofDays(1));
+        String token = new JwtUtil(keyRing, TTL, REFRESH_TTL).generateToken("john", "ROLE_USER");
+
+        JsonNode jwk = findJwk(keyRing, kid(token));
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        PublicKey publicKey = KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(
+                new BigInteger(1, decoder.decode(jwk.get("n").asText())),
+                new BigInteger(1, decoder.decode(jwk.get("e").asText()))));
+
+        assertEquals("RS256", jwk.get("alg").asText());
+        assertEquals("john", Jwts.parserBuilder().setSigningKey(publicKey).build()
+                .parseClaimsJws(token).getBody().getSubject());
+    }
+
+    @Test
+    void es256_shouldSignAndPublishP256Keys() throws Exception {
+        JwtKeyRing keyRing = new JwtKeyRing("ES256", SECRET, Duration.ofDays(1));
+        JwtUtil jwtUtil = new JwtUtil(keyRing, TTL, REFRESH_TTL);
+        String token = jwtUtil.generateToken("john", "ROLE_USER");
+
+        JsonNode jwk = findJwk(keyRing, kid(token));
+        assertEquals("john", jwtUtil.verify(token).subject());
+        assertEquals("P-256", jwk.get("crv").asText());
+        assertEquals(32, Base64.getUrlDecoder().decode(jwk.get("x").asText()).length);
+        assertEquals(32, Base64.getUrlDecoder().decode(jwk.get("y").asText()).length);
+    }
+
+    @Test
+    void verify_shouldRejectUnknownAndExpiredKeyIds() throws Exception {
+        JwtKeyRing keyRing = new JwtKeyRing("RS256", SECRET, Duration.ZERO);
+        JwtUtil jwtUtil = new JwtUtil(keyRing, TTL, REFRESH_TTL);
+        String foreign = new JwtUtil(new JwtKeyRing("RS256", SECRET, Duration.ZERO), TTL, REFRESH_TTL)
+                .generateToken("john", "ROLE_USER");
+        String token = jwtUtil.generateToken("john", "ROLE_USER");
+
+        keyRing.rotate();
+        Thread.sleep(5);
+        keyRing.rotate();
+
+        assertThrows(SignatureException.class, () -> jwtUtil.verify(foreign));
+        assertThrows(SignatureException.class, () -> jwtUtil.verify(token));
+    }
+
+    @Test
+    void jwksEndpoint_shouldAnswerConditionalRequestsWithNotModified() throws Exception {
+        JwtKeyRing keyRing = new JwtKeyRing("ES256", SECRET, Duration.ofDays(1));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new JwksController(keyRing, Duration.ofHours(1))).build();
+        String etag = keyRing.jwks().etag();
+
+        mockMvc.perform(get("/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=3600, public"));
+        mockMvc.perform(get("/.well-known/jwks.json").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    private String kid(String token) throws Exception {
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+        return objectMapper.readTree(header).get("kid").asText();
+    }
+
+    private JsonNode findJwk(JwtKeyRing keyRing, String kid) throws Exception {
+        for (JsonNode jwk : objectMapper.readTree(keyRing.jwks().json()).get("keys")) {
+            if (kid.equals(jwk.get("kid").asText())) {
+                return jwk;
+            }
+        }
+        return fail("No JWK published for kid " + kid);
+    }
+}
@@ -0,0 +1,78 @@
+package com.test.usermanagementservice;
+
+import com.test.usermanagementservice.security.JwtKeyRing;
+import com.test.usermanagementservice.util.JwtUtil;
+import com.test.usermanagementservice.util.TokenValidation;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "954hYQHv3qTi+FxsSosy7AITQfrbpqBgFGmXpyyqRvo=";
+
+    private final JwtUtil jwtUtil = new JwtUtil(new JwtKeyRing("HS256", SECRET, Duration.ofDays(1)),
+            Duration.ofMinutes(15), Duration.ofDays(7));
+
+    @Test
+    void validate_shouldReturnClaimsOfValidToken() {
+        TokenValidation validation = jwtUtil.validate(jwtUtil.generateToken("john", "ROLE_USER"));
+
+        assertTrue(validation.isValid());
+        assertEquals("john", validation.token().subject());
+        assertEquals("ROLE_USER", validation.token().role());
+    }
+
+    @Test
+    void validate_shouldReportExpiredTokensWithoutThrowing() {
+        long now = System.currentTimeMillis();
+        String expired = signed(Jwts.builder().setSubject("john").setExpiration(new Date(now - 1000)), SECRET);
+        String notYetValid = signed(Jwts.builder().setSubject("john").setNotBefore(new Date(now + 60_000))
+                .setExpiration(new Date(now + 120_000)), SECRET);
+
+        assertSame(TokenValidation.EXPIRED, jwtUtil.validate(expired));
+        assertSame(TokenValidation.EXPIRED, jwtUtil.validate(notYetValid));
+        // verify keeps its exception contract
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.verify(expired));
+    }
+
+    @Test
+    void validate_shouldReportTokensSignedWithAnotherKey() {
+        String otherSecret = "c2VjcmV0LXNlY3JldC1zZWNyZXQtc2VjcmV0LXNlY3JldC0xMjM0NTY3ODk=";
+        String foreign = signed(Jwts.builder().setSubject("john")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000)), otherSecret);
+        // Expired and badly signed: the signature is checked first
+        String expiredForeign = signed(Jwts.builder().setSubject("john")
+                .setExpiration(new Date(System.currentTimeMillis() - 60_000)), otherSecret);
+
+        assertSame(TokenValidation.BAD_SIGNATURE, jwtUtil.validate(foreign));
+        assertSame(TokenValidation.BAD_SIGNATURE, jwtUtil.validate(expiredForeign));
+    }
+
+    @Test
+    void validate_shouldReportMalformedTokens() {
+        String token = jwtUtil.generateToken("john", "ROLE_USER");
+
+        assertSame(TokenValidation.MALFORMED, jwtUtil.validate(null));
+        assertSame(TokenValidation.MALFORMED, jwtUtil.validate(""));
+        assertSame(TokenValidation.MALFORMED, jwtUtil.validate("not-a-jwt"));
+        assertSame(TokenValidation.MALFORMED, jwtUtil.validate(token.substring(0, token.lastIndexOf('.') + 1)));
+        assertSame(TokenValidation.MALFORMED, jwtUtil.validate(token + ".extra"));
+        assertSame(TokenValidation.MALFORMED, jwtUtil.validate(token.replaceFirst("\\.", "+.")));
+        assertSame(TokenValidation.MALFORMED, jwtUtil.validate("abc.def.ghi"));
+    }
+
+    private static String signed(JwtBuilder builder, String secret) {
+        return builder.signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,73 @@
+package com.test.usermanagementservice;
+
+import com.test.usermanagementservice.invalidation.InvalidationBus;
+import com.test.usermanagementservice.invalidation.InvalidationEvent;
+import com.test.usermanagementservice.models.UserCredentials;
+import com.test.usermanagementservice.security.SecurityConfig;
+import com.test.usermanagementservice.security.TunableBCryptPasswordEncoder;
+import com.test.usermanagementservice.service.CustomUserDetailsService;
+import com.test.usermanagementservice.service.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PasswordUpgradeTest {
+
+    @Test
+    void tunableEncoder_shouldRequestUpgradeWhenCostDiffers() {
+        TunableBCryptPasswordEncoder encoder = new TunableBCryptPasswordEncoder(5);
+
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+        assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret")));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("secret")));
+    }
+
+    @Test
+    void delegatingEncoder_shouldMatchLegacyHashesWithoutPrefix() {
+        PasswordEncoder encoder = SecurityConfig.delegatingPasswordEncoder(4);
+        String legacyHash = new BCryptPasswordEncoder(4).encode("admin123");
+
+        assertTrue(encoder.matches("admin123", legacyHash));
+        assertTrue(encoder.upgradeEncoding(legacyHash));
+        assertTrue(encoder.encode("admin123").startsWith("{bcrypt}"));
+    }
+
+    @Test
+    void login_shouldStoreUpgradedHash() {
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        String legacyHash = new BCryptPasswordEncoder(4).encode("admin123");
+        when(userRepository.findCredentialsByUsername("admin"))
+                .thenReturn(Optional.of(new UserCredentials(1L, "admin", legacyHash, "ADMIN")));
+        InvalidationBus invalidationBus = Mockito.mock(InvalidationBus.class);
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService(userRepository,
+                new ConcurrentMapCacheManager(CustomUserDetailsService.USER_DETAILS_CACHE), new SimpleMeterRegistry(),
+                new StaticListableBeanFactory(Map.of("invalidationBus", invalidationBus))
+                        .getBeanProvider(InvalidationBus.class));
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(userDetailsService);
+        provider.setPasswordEncoder(SecurityConfig.delegatingPasswordEncoder(5));
+        provider.setUserDetailsPasswordService(userDetailsService);
+
+        provider.authenticate(new UsernamePasswordAuthenticationToken("admin", "admin123"));
+
+        ArgumentCaptor<String> newHash = ArgumentCaptor.forClass(String.class);
+        verify(userRepository).updatePassword(eq("admin"), newHash.capture());
+        assertTrue(newHash.getValue().startsWith("{bcrypt}$2a$05$"));
+        // The new hash must reach the other nodes, but tokens issued before it stay valid
+        verify(invalidationBus).publish(new InvalidationEvent.UserChanged(1L, "admin", null));
+    }
+}
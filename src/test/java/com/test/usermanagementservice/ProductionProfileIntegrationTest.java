@@ -0,0 +1,108 @@
+package com.test.usermanagementservice;
+
+import com.test.usermanagementservice.models.AppUser;
+import com.test.usermanagementservice.service.UserRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// R2DBC is on the test classpath with -Preactive; its connection factory would switch off the JDBC DataSource
+@SpringBootTest(properties = {
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration",
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "spring.datasource.hikari.minimum-idle=4",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("prod")
+class ProductionProfileIntegrationTest {
+
+    @TempDir
+    static Path dataDir;
+
+    @DynamicPropertySource
+    static void databaseUrl(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url",
+                () -> "jdbc:h2:file:" + dataDir.resolve("usermanagement") + ";QUERY_CACHE_SIZE=64");
+    }
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void prodProfile_shouldUseFileBackedDatabaseWithValidatedSchema() {
+        Map<String, Object> properties = entityManagerFactory.getProperties();
+
+        assertEquals("validate", properties.get("hibernate.hbm2ddl.auto"));
+        assertTrue(Files.exists(dataDir.resolve("usermanagement.mv.db")));
+        // schema-prod.sql created the tables and DataInitializer seeded them
+        assertEquals(2, userRepository.count());
+    }
+
+    @Test
+    void prodProfile_shouldConfigureConnectionPool() {
+        HikariDataSource hikari = assertInstanceOf(HikariDataSource.class, dataSource);
+
+        assertEquals("usermanagement", hikari.getPoolName());
+        assertEquals(4, hikari.getMaximumPoolSize());
+        assertEquals(4, hikari.getMinimumIdle());
+        assertEquals(5000, hikari.getConnectionTimeout());
+        assertFalse(hikari.isAutoCommit());
+    }
+
+    @Test
+    void prodProfile_shouldNotHoldConnectionsForTheWholeRequest() {
+        assertEquals(0, context.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class).length);
+    }
+
+    @Test
+    void prodProfile_shouldBatchInserts() {
+        Map<String, Object> properties = entityManagerFactory.getProperties();
+        assertEquals("50", properties.get("hibernate.jdbc.batch_size"));
+        assertEquals("true", properties.get("hibernate.order_updates"));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        List<AppUser> users = IntStream.range(0, 100)
+                .mapToObj(i -> new AppUser("batch" + i, "hash", "USER"))
+                .toList();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> userRepository.saveAll(users));
+
+        assertEquals(100, statistics.getEntityInsertCount());
+        // 100 inserts go out as two batches; without batching this would be one statement per row
+        assertTrue(statistics.getPrepareStatementCount() < 10,
+                "prepared statements: " + statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,129 @@
+package com.test.usermanagementservice;
+
+import com.test.usermanagementservice.DTOs.AuthResponse;
+import com.test.usermanagementservice.DTOs.RefreshRequest;
+import com.test.usermanagementservice.controllers.AuthController;
+import com.test.usermanagementservice.audit.AuditLog;
+import com.test.usermanagementservice.invalidation.InvalidationBus;
+import com.test.usermanagementservice.security.JwtKeyRing;
+import com.test.usermanagementservice.security.LoginThrottle;
+import com.test.usermanagementservice.security.TokenRevocationService;
+import com.test.usermanagementservice.models.UserCredentials;
+import com.test.usermanagementservice.service.CustomUserDetailsService;
+import com.test.usermanagementservice.service.UserRepository;
+import com.test.usermanagementservice.util.JwtUtil;
+import com.test.usermanagementservice.util.VerifiedToken;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+class RefreshTokenTest {
+
+    private static final long JOHN_ID = 1L;
+
+    private JwtUtil jwtUtil;
+    private UserRepository userRepository;
+    private CustomUserDetailsService userDetailsService;
+    private TokenRevocationService tokenRevocationService;
+    private AuthController authController;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(new JwtKeyRing("HS256", "954hYQHv3qTi+FxsSosy7AITQfrbpqBgFGmXpyyqRvo=",
+                Duration.ofDays(7)), Duration.ofMinutes(15), Duration.ofDays(7));
+        userRepository = Mockito.mock(UserRepository.class);
+        userDetailsService = new CustomUserDetailsService(userRepository,
+                new ConcurrentMapCacheManager(CustomUserDetailsService.USER_DETAILS_CACHE), new SimpleMeterRegistry(),
+                new StaticListableBeanFactory().getBeanProvider(InvalidationBus.class));
+        tokenRevocationService = new TokenRevocationService(jwtUtil);
+        authController = new AuthController(Mockito.mock(AuthenticationManager.class), jwtUtil,
+                userDetailsService, tokenRevocationService, Mockito.mock(LoginThrottle.class),
+                Mockito.mock(InvalidationBus.class), Mockito.mock(AuditLog.class),
+                new SimpleMeterRegistry());
+        when(userRepository.findCredentialsByUsername("john"))
+                .thenReturn(Optional.of(new UserCredentials(JOHN_ID, "john", "{bcrypt}hash", "ADMIN")));
+    }
+
+    @Test
+    void refresh_shouldIssueNewPairWithCurrentRole() {
+        String refreshToken = jwtUtil.generateRefreshToken("john", JOHN_ID);
+
+        ResponseEntity<?> response = authController.refresh(new RefreshRequest(refreshToken));
+
+        assertEquals(200, response.getStatusCode().value());
+        AuthResponse body = (AuthResponse) response.getBody();
+        VerifiedToken accessToken = jwtUtil.verify(body.getJwtToken());
+        assertEquals("john", accessToken.subject());
+        assertEquals("ROLE_ADMIN", accessToken.role());
+        assertFalse(accessToken.isRefreshToken());
+        assertTrue(jwtUtil.verify(body.getRefreshToken()).isRefreshToken());
+    }
+
+    @Test
+    void refresh_shouldAcceptEachRefreshTokenOnce() {
+        String refreshToken = jwtUtil.generateRefreshToken("john", JOHN_ID);
+
+        assertEquals(200, authController.refresh(new RefreshRequest(refreshToken)).getStatusCode().value());
+        assertEquals(401, authController.refresh(new RefreshRequest(refreshToken)).getStatusCode().value());
+    }
+
+    @Test
+    void refresh_shouldRejectAccessTokensAndDeletedUsers() {
+        String accessToken = jwtUtil.generateToken("john", "ROLE_ADMIN");
+
+        assertEquals(401, authController.refresh(new RefreshRequest(accessToken)).getStatusCode().value());
+        assertEquals(401, authController.refresh(new RefreshRequest(jwtUtil.generateRefreshToken("gone", 2L)))
+                .getStatusCode().value());
+        assertEquals(401, authController.refresh(new RefreshRequest("not-a-token")).getStatusCode().value());
+    }
+
+    @Test
+    void refresh_afterUsernameIsTakenByAnotherAccount_shouldBeRejected() {
+        String refreshToken = jwtUtil.generateRefreshToken("john", JOHN_ID);
+        // john is deleted (or renamed) and a new account registers the freed username
+        when(userRepository.findCredentialsByUsername("john"))
+                .thenReturn(Optional.of(new UserCredentials(JOHN_ID + 1, "john", "{bcrypt}other", "ADMIN")));
+        userDetailsService.evictUser("john");
+
+        assertEquals(401, authController.refresh(new RefreshRequest(refreshToken)).getStatusCode().value());
+    }
+
+    @Test
+    void refresh_withoutUserId_shouldBeRejected() {
+        String refreshToken = jwtUtil.generateRefreshToken("john", null);
+
+        assertEquals(401, authController.refresh(new RefreshRequest(refreshToken)).getStatusCode().value());
+    }
+
+    @Test
+    void refresh_shouldCarryUserIdIntoTheNewRefreshToken() {
+        ResponseEntity<?> response = authController.refresh(
+                new RefreshRequest(jwtUtil.generateRefreshToken("john", JOHN_ID)));
+
+        AuthResponse body = (AuthResponse) response.getBody();
+        assertEquals(JOHN_ID, jwtUtil.verify(body.getRefreshToken()).userId());
+    }
+
+    @Test
+    void logout_shouldRevokeBothTokens() {
+        String accessToken = jwtUtil.generateToken("john", "ROLE_ADMIN");
+        String refreshToken = jwtUtil.generateRefreshToken("john", JOHN_ID);
+
+        assertEquals(204, authController.logout(new RefreshRequest(refreshToken), "Bearer " + accessToken)
+                .getStatusCode().value());
+
+        assertTrue(tokenRevocationService.isTokenRevoked(jwtUtil.verify(accessToken)));
+        assertEquals(401, authController.refresh(new RefreshRequest(refreshToken)).getStatusCode().value());
+    }
+}
@@ -0,0 +1,154 @@
+package com.test.usermanagementservice;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.test.usermanagementservice.cacheconfig.HibernateCacheConfig;
+import com.test.usermanagementservice.models.AppUser;
+import com.test.usermanagementservice.service.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.cache.CacheManager;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Without the test transaction, so each repository call commits and the second-level cache sees it
+@DataJpaTest
+@Import(HibernateCacheConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager hibernateCacheManager;
+
+    private Statistics statistics;
+    private AppUser john;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        AppUser user = new AppUser("john", "hash", "USER");
+        user.setEmail("john@example.com");
+        john = userRepository.save(user);
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void regions_shouldHaveConfiguredLimits() {
+        userRepository.findById(john.getId());
+
+        @SuppressWarnings("unchecked")
+        CaffeineConfiguration<Object, Object> region = hibernateCacheManager
+                .getCache(HibernateCacheConfig.APP_USER_REGION)
+                .getConfiguration(CaffeineConfiguration.class);
+        assertEquals(10000, region.getMaximumSize().getAsLong());
+        assertEquals(Duration.ofMinutes(10).toNanos(), region.getExpireAfterWrite().getAsLong());
+        assertTrue(hibernateCacheManager.getCache(HibernateCacheConfig.APP_USER_REGION).iterator().hasNext());
+    }
+
+    @Test
+    void findById_shouldBeServedFromCache() {
+        assertEquals("john", userRepository.findById(john.getId()).orElseThrow().getUsername());
+        assertEquals("john", userRepository.findById(john.getId()).orElseThrow().getUsername());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getDomainDataRegionStatistics("appUser").getHitCount());
+    }
+
+    @Test
+    void findByUsername_shouldBeServedFromNaturalIdCache() {
+        assertEquals(john.getId(), userRepository.findByUsername("john").getId());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getNaturalIdStatistics(AppUser.class.getName()).getCacheHitCount());
+        assertNull(userRepository.findByUsername("nobody"));
+    }
+
+    @Test
+    void findCredentialsByUsername_shouldBeServedFromQueryCache() {
+        assertEquals("hash", userRepository.findCredentialsByUsername("john").orElseThrow().password());
+        statistics.clear();
+
+        assertEquals("hash", userRepository.findCredentialsByUsername("john").orElseThrow().password());
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void updatePassword_shouldNotLeaveStaleHashInCache() {
+        // A rehash on login must be visible to the next credentials and natural id lookups at once
+        userRepository.findCredentialsByUsername("john");
+        userRepository.findByUsername("john");
+
+        userRepository.updatePassword("john", "new-hash");
+
+        assertEquals("new-hash", userRepository.findCredentialsByUsername("john").orElseThrow().password());
+        assertEquals("new-hash", userRepository.findByUsername("john").getPassword());
+    }
+
+    @Test
+    void save_shouldUpdateCachedEntity() {
+        AppUser user = userRepository.findById(john.getId()).orElseThrow();
+        user.setEmail("john@new.org");
+        userRepository.save(user);
+        statistics.clear();
+
+        assertEquals("john@new.org", userRepository.findById(john.getId()).orElseThrow().getEmail());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void bulkUpdate_shouldInvalidateEntityAndNaturalIdCaches() {
+        userRepository.patch(john.getId(), "johnny", null, null, Timestamp.from(Instant.now()), null);
+
+        assertEquals("johnny", userRepository.findById(john.getId()).orElseThrow().getUsername());
+        assertNull(userRepository.findByUsername("john"));
+        assertEquals(john.getId(), userRepository.findByUsername("johnny").getId());
+    }
+
+    @Test
+    void bulkDelete_shouldInvalidateCachedEntity() {
+        userRepository.findById(john.getId());
+
+        assertEquals(1, userRepository.deleteUserById(john.getId()));
+
+        assertTrue(userRepository.findById(john.getId()).isEmpty());
+        assertNull(userRepository.findByUsername("john"));
+    }
+
+    @Test
+    void findPage_shouldUseQueryCacheUntilTableChanges() {
+        userRepository.findPage(0L, null, null, null, Limit.of(10));
+        userRepository.findPage(0L, null, null, null, Limit.of(10));
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        userRepository.save(new AppUser("jane", "hash", "USER"));
+
+        assertEquals(2, userRepository.findPage(0L, null, null, null, Limit.of(10)).size());
+    }
+}
@@ -0,0 +1,53 @@
+package com.test.usermanagementservice;
+
+import com.test.usermanagementservice.cacheconfig.HibernateCacheConfig;
+import com.test.usermanagementservice.models.AppUser;
+import com.test.usermanagementservice.service.UserExportService;
+import com.test.usermanagementservice.service.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({HibernateCacheConfig.class, UserExportService.class, JacksonAutoConfiguration.class})
+class UserExportServiceTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void exportTo_shouldWriteOneJsonObjectPerLineAndDetachRows() {
+        for (int i = 0; i < 3; i++) {
+            AppUser user = new AppUser("user" + i, "hash", "USER");
+            user.setEmail("user" + i + "@example.com");
+            userRepository.save(user);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        userExportService.exportTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].contains("\"username\":\"user0\""));
+        assertTrue(lines[2].contains("\"email\":\"user2@example.com\""));
+        assertFalse(lines[0].contains("hash"));
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+}
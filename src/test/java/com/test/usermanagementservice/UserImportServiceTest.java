@@ -0,0 +1,138 @@
+package com.test.usermanagementservice;
+
+import com.test.usermanagementservice.DTOs.UserImportReport;
+import com.test.usermanagementservice.cacheconfig.HibernateCacheConfig;
+import com.test.usermanagementservice.service.UserImportService;
+import com.test.usermanagementservice.service.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({HibernateCacheConfig.class, UserImportService.class, JacksonAutoConfiguration.class,
+        UserImportServiceTest.EncoderConfig.class})
+@TestPropertySource(properties = "users.import.batch-size=2")
+class UserImportServiceTest {
+
+    @TestConfiguration
+    static class EncoderConfig {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void importUsers_shouldReadJsonArrayAcrossBatches() throws Exception {
+        String body = """
+                [{"username":"a","password":"pw","email":"a@x.com","role":"USER"},
+                 {"username":"b","password":"pw","email":"b@x.com","role":"USER"},
+                 {"username":"c","password":"pw","email":"c@x.com","role":"ADMIN"}]
+                """;
+
+        UserImportReport report = userImportService.importUsers(stream(body), UserImportService.Format.JSON);
+
+        assertEquals(3, report.getImported());
+        assertEquals(0, report.getFailed());
+        assertTrue(userRepository.findByUsername("c").getPassword().startsWith("$2a$04$"));
+    }
+
+    @Test
+    void importUsers_shouldReportInvalidAndDuplicateRows() throws Exception {
+        String body = """
+                {"username":"a","password":"pw","email":"a@x.com"}
+                {"username":"a","password":"pw","email":"other@x.com"}
+                {"username":"b","password":"pw"}
+                {"username":"c","password":"pw","email":"a@x.com"}
+                """;
+
+        UserImportReport report = userImportService.importUsers(stream(body), UserImportService.Format.JSON);
+
+        assertEquals(1, report.getImported());
+        assertEquals(3, report.getFailed());
+        assertEquals(2, report.getErrors().get(0).row());
+        assertEquals("Username already in use", report.getErrors().get(0).error());
+        assertEquals(3, report.getErrors().get(1).row());
+        assertEquals("Email already in use", report.getErrors().get(2).error());
+    }
+
+    @Test
+    void importUsers_rowRejectedForItsEmail_shouldNotReserveItsUsername() throws Exception {
+        String body = """
+                {"username":"a","password":"pw","email":"a@x.com"}
+                {"username":"b","password":"pw","email":"a@x.com"}
+                {"username":"b","password":"pw","email":"b@x.com"}
+                """;
+
+        UserImportReport report = userImportService.importUsers(stream(body), UserImportService.Format.JSON);
+
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(2, report.getErrors().get(0).row());
+        assertEquals("Email already in use", report.getErrors().get(0).error());
+        assertEquals("b@x.com", userRepository.findByUsername("b").getEmail());
+    }
+
+    @Test
+    void importUsers_rowThatFailsToInsert_shouldFreeItsEmailForLaterRows() throws Exception {
+        // Too long for the username column, so only the insert finds the problem
+        String body = """
+                {"username":"%s","password":"pw","email":"a@x.com"}
+                {"username":"b","password":"pw","email":"b@x.com"}
+                {"username":"a","password":"pw","email":"a@x.com"}
+                """.formatted("x".repeat(300));
+
+        UserImportReport report = userImportService.importUsers(stream(body), UserImportService.Format.JSON);
+
+        assertEquals(2, report.getImported());
+        assertEquals(1, report.getFailed());
+        assertEquals(1, report.getErrors().get(0).row());
+        assertEquals("a@x.com", userRepository.findByUsername("a").getEmail());
+    }
+
+    @Test
+    void importUsers_shouldReadCsvWithHeader() throws Exception {
+        String body = """
+                email,username,password,role
+                a@x.com,a,pw,USER
+                b@x.com,b,pw,
+                """;
+
+        UserImportReport report = userImportService.importUsers(stream(body), UserImportService.Format.CSV);
+
+        assertEquals(2, report.getImported());
+        assertEquals("a@x.com", userRepository.findByUsername("a").getEmail());
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,114 @@
+package com.test.usermanagementservice;
+
+import com.test.usermanagementservice.DTOs.AppUserDTO;
+import com.test.usermanagementservice.invalidation.InvalidationBus;
+import com.test.usermanagementservice.security.TokenRevocationService;
+import com.test.usermanagementservice.service.CustomUserDetailsService;
+import com.test.usermanagementservice.service.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// DELETE /api/users on the controller alone, without the security filter chain
+class UserManagementControllerBatchDeleteTest {
+
+    private final UserManagementControllerFixture fixture = new UserManagementControllerFixture();
+    private final UserRepository userRepository = fixture.userRepository;
+    private final TokenRevocationService tokenRevocationService = fixture.tokenRevocationService;
+    private final CustomUserDetailsService userDetailsService = fixture.userDetailsService;
+    private final InvalidationBus invalidationBus = fixture.invalidationBus;
+    private final MockMvc mockMvc = fixture.mockMvc;
+
+    @Test
+    void deleteUsers_shouldReportDeletedCountAndMissingIds() throws Exception {
+        when(userRepository.findAllDtosById(List.of(1L, 2L, 3L))).thenReturn(List.of(
+                new AppUserDTO(1L, "john", "john@example.com", "USER"),
+                new AppUserDTO(3L, "jane", "jane@example.com", "USER")));
+        when(userRepository.deleteUsersById(List.of(1L, 2L, 3L))).thenReturn(2);
+
+        mockMvc.perform(delete("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, 2, 3]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2))
+                .andExpect(jsonPath("$.notFound.length()").value(1))
+                .andExpect(jsonPath("$.notFound[0]").value(2));
+
+        verify(tokenRevocationService).revokeUser("john");
+        verify(tokenRevocationService).revokeUser("jane");
+        verify(userDetailsService).evictUser("john");
+        verify(userDetailsService).evictUser("jane");
+        verify(invalidationBus, times(2)).publish(any());
+    }
+
+    @Test
+    void deleteUsers_shouldIgnoreDuplicateAndNullIds() throws Exception {
+        when(userRepository.findAllDtosById(List.of(1L, 2L))).thenReturn(List.of(
+                new AppUserDTO(1L, "john", "john@example.com", "USER"),
+                new AppUserDTO(2L, "jane", "jane@example.com", "USER")));
+        when(userRepository.deleteUsersById(List.of(1L, 2L))).thenReturn(2);
+
+        mockMvc.perform(delete("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1, null, 2, 1, 2, null]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(2))
+                .andExpect(jsonPath("$.notFound").isEmpty());
+
+        verify(userRepository).deleteUsersById(List.of(1L, 2L));
+    }
+
+    @Test
+    void deleteUsers_shouldWorkInChunks() throws Exception {
+        when(userRepository.findAllDtosById(anyCollection())).thenReturn(List.of());
+        when(userRepository.deleteUsersById(anyCollection())).thenReturn(0);
+
+        mockMvc.perform(delete("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ids(1001)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(0))
+                .andExpect(jsonPath("$.notFound.length()").value(1001));
+
+        verify(userRepository, times(2)).deleteUsersById(anyCollection());
+    }
+
+    @Test
+    void deleteUsers_withEmptyList_shouldReturn400() throws Exception {
+        mockMvc.perform(delete("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(delete("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[null]"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void deleteUsers_withTooManyIds_shouldReturn400() throws Exception {
+        mockMvc.perform(delete("/api/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(ids(10_001)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userRepository);
+    }
+
+    private static String ids(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(String::valueOf)
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+}
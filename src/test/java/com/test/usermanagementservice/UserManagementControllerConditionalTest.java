@@ -0,0 +1,183 @@
+package com.test.usermanagementservice;
+
+import com.test.usermanagementservice.models.AppUser;
+import com.test.usermanagementservice.security.TokenRevocationService;
+import com.test.usermanagementservice.service.CustomUserDetailsService;
+import com.test.usermanagementservice.service.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// ETag / If-Match handling of GET, PUT and PATCH, on the controller alone without the security filter chain
+class UserManagementControllerConditionalTest {
+
+    private static final long MARK = 1_700_000_000_000L;
+
+    private final UserManagementControllerFixture fixture = new UserManagementControllerFixture();
+    private final UserRepository userRepository = fixture.userRepository;
+    private final TokenRevocationService tokenRevocationService = fixture.tokenRevocationService;
+    private final CustomUserDetailsService userDetailsService = fixture.userDetailsService;
+    private final MockMvc mockMvc = fixture.mockMvc;
+
+    private AppUser user;
+
+    @BeforeEach
+    void setUp() {
+        user = new AppUser();
+        user.setId(1L);
+        user.setUsername("john");
+        user.setEmail("john@example.com");
+        user.setRole("USER");
+        user.setVersion(3L);
+        when(tokenRevocationService.currentMark()).thenReturn(MARK);
+    }
+
+    @Test
+    void getUser_shouldReturnVersionAsETag() throws Exception {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        mockMvc.perform(get("/api/users/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(jsonPath("$.username").value("john"));
+    }
+
+    @Test
+    void updateUser_withMatchingIfMatch_shouldSaveRevokeAndReturnNewETag() throws Exception {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.save(any(AppUser.class))).thenAnswer(invocation -> {
+            AppUser saved = invocation.getArgument(0);
+            saved.setVersion(4L);
+            return saved;
+        });
+
+        mockMvc.perform(put("/api/users/1")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateBody("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("$.username").value("newjohn"))
+                .andExpect(jsonPath("$.role").value("ADMIN"));
+
+        verify(tokenRevocationService).revokeUser("john", MARK);
+        verify(userDetailsService).evictUser("john");
+        verify(userDetailsService).evictUser("newjohn");
+    }
+
+    @Test
+    void updateUser_withStaleIfMatch_shouldReturn412AndNotRevoke() throws Exception {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        mockMvc.perform(put("/api/users/1")
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateBody("ADMIN")))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(userRepository, never()).save(any());
+        verifyNoRevocation();
+    }
+
+    @Test
+    void updateUser_whenChangedConcurrently_shouldReturn412AndNotRevoke() throws Exception {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.save(any(AppUser.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(AppUser.class, 1L));
+
+        mockMvc.perform(put("/api/users/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateBody("ADMIN")))
+                .andExpect(status().isPreconditionFailed());
+
+        verifyNoRevocation();
+    }
+
+    @Test
+    void updateUser_withoutRole_shouldReturn400() throws Exception {
+        mockMvc.perform(put("/api/users/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(updateBody(null)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void patchUser_withMatchingIfMatch_shouldReturn204WithNewETag() throws Exception {
+        when(userRepository.findUsernameById(1L)).thenReturn(Optional.of("john"));
+        when(userRepository.patch(eq(1L), isNull(), isNull(), eq("ADMIN"), any(), eq(3L))).thenReturn(1);
+
+        mockMvc.perform(patch("/api/users/1")
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"role\":\"ADMIN\"}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+
+        verify(tokenRevocationService).revokeUser("john", MARK);
+        verify(userDetailsService).evictUser("john");
+    }
+
+    @Test
+    void patchUser_withStaleIfMatch_shouldReturn412AndNotRevoke() throws Exception {
+        when(userRepository.findUsernameById(1L)).thenReturn(Optional.of("john"));
+        when(userRepository.patch(eq(1L), isNull(), isNull(), eq("ADMIN"), any(), eq(2L))).thenReturn(0);
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        mockMvc.perform(patch("/api/users/1")
+                        .header(HttpHeaders.IF_MATCH, "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"role\":\"ADMIN\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+
+        verifyNoRevocation();
+    }
+
+    @Test
+    void patchUser_whenUserIsMissing_shouldReturn404() throws Exception {
+        // An email change skips the username lookup, so the miss shows up as zero rows updated
+        when(userRepository.patch(eq(1L), isNull(), eq("new@example.com"), isNull(), any(), isNull()))
+                .thenReturn(0);
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        mockMvc.perform(patch("/api/users/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"new@example.com\"}"))
+                .andExpect(status().isNotFound());
+
+        verifyNoRevocation();
+    }
+
+    @Test
+    void patchUser_withEmptyBody_shouldReturn400() throws Exception {
+        mockMvc.perform(patch("/api/users/1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userRepository);
+    }
+
+    private static String updateBody(String role) {
+        return role == null
+                ? "{\"username\":\"newjohn\",\"email\":\"new@example.com\"}"
+                : "{\"username\":\"newjohn\",\"email\":\"new@example.com\",\"role\":\"" + role + "\"}";
+    }
+
+    private void verifyNoRevocation() {
+        verify(tokenRevocationService, never()).revokeUser(anyString());
+        verify(tokenRevocationService, never()).revokeUser(anyString(), anyLong());
+    }
+}
@@ -0,0 +1,34 @@
+package com.test.usermanagementservice;
+
+import com.test.usermanagementservice.audit.AuditLog;
+import com.test.usermanagementservice.controllers.UserManagementController;
+import com.test.usermanagementservice.invalidation.InvalidationBus;
+import com.test.usermanagementservice.security.TokenRevocationService;
+import com.test.usermanagementservice.service.CustomUserDetailsService;
+import com.test.usermanagementservice.service.UserExportService;
+import com.test.usermanagementservice.service.UserImportService;
+import com.test.usermanagementservice.service.UserRepository;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.Mockito.mock;
+
+// UserManagementController on its own with mocked collaborators, behind a standalone MockMvc without the
+// security filter chain. Create one per test so every test starts with fresh mocks
+class UserManagementControllerFixture {
+
+    final UserRepository userRepository = mock(UserRepository.class);
+    final TokenRevocationService tokenRevocationService = mock(TokenRevocationService.class);
+    final CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class);
+    final InvalidationBus invalidationBus = mock(InvalidationBus.class);
+    final MockMvc mockMvc;
+
+    UserManagementControllerFixture() {
+        UserManagementController controller = new UserManagementController(userRepository,
+                mock(PasswordEncoder.class), tokenRevocationService, userDetailsService,
+                mock(UserExportService.class), mock(UserImportService.class), invalidationBus,
+                mock(AuditLog.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+}
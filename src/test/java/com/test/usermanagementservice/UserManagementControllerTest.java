@@ -3,8 +3,13 @@ package com.test.usermanagementservice;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.test.usermanagementservice.controllers.UserManagementController;
 import com.test.usermanagementservice.filters.JwtAuthenticationFilter;
+import com.test.usermanagementservice.audit.AuditLog;
+import com.test.usermanagementservice.invalidation.InvalidationBus;
 import com.test.usermanagementservice.models.AppUser;
+import com.test.usermanagementservice.security.TokenRevocationService;
 import com.test.usermanagementservice.service.CustomUserDetailsService;
+import com.test.usermanagementservice.service.UserExportService;
+import com.test.usermanagementservice.service.UserImportService;
 import com.test.usermanagementservice.service.UserRepository;
 import com.test.usermanagementservice.util.JwtUtil;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,7 +25,7 @@ import org.springframework.http.MediaType;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -46,7 +51,7 @@ class UserManagementControllerTest {
     private UserRepository userRepository;
 
     @MockBean
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordEncoder passwordEncoder;
 
     @MockBean
     private JwtUtil jwtUtil;
@@ -60,6 +65,21 @@ class UserManagementControllerTest {
     @MockBean
     private AuthenticationManager authenticationManager;
 
+    @MockBean
+    private TokenRevocationService tokenRevocationService;
+
+    @MockBean
+    private UserExportService userExportService;
+
+    @MockBean
+    private UserImportService userImportService;
+
+    @MockBean
+    private InvalidationBus invalidationBus;
+
+    @MockBean
+    private AuditLog auditLog;
+
     @MockBean
     HttpServletRequest httpServletRequest;
     @MockBean
@@ -170,8 +190,8 @@ class UserManagementControllerTest {
     @Test
     @WithMockUser
     void testDeleteUser_Found() throws Exception {
-        when(userRepository.existsById(1L)).thenReturn(true);
-        doNothing().when(userRepository).deleteById(1L);
+        when(userRepository.findUsernameById(1L)).thenReturn(Optional.of("john"));
+        when(userRepository.deleteUserById(1L)).thenReturn(1);
 
         mockMvc.perform(delete("/api/users/1"))
                 .andExpect(status().isOk())
@@ -181,7 +201,7 @@ class UserManagementControllerTest {
     @Test
     @WithMockUser
     void testDeleteUser_NotFound() throws Exception {
-        when(userRepository.existsById(1L)).thenReturn(false);
+        when(userRepository.findUsernameById(1L)).thenReturn(Optional.empty());
 
         mockMvc.perform(delete("/api/users/1"))
 
@@ -0,0 +1,148 @@
+package com.test.usermanagementservice;
+
+import com.test.usermanagementservice.DTOs.AppUserDTO;
+import com.test.usermanagementservice.cacheconfig.HibernateCacheConfig;
+import com.test.usermanagementservice.models.AppUser;
+import com.test.usermanagementservice.service.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import(HibernateCacheConfig.class)
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private AppUser alice;
+
+    @BeforeEach
+    void setUp() {
+        alice = userRepository.save(user("alice", "alice@example.com", "ADMIN"));
+        userRepository.save(user("albert", "albert@test.org", "USER"));
+        userRepository.save(user("bob", "bob@example.com", "USER"));
+        userRepository.save(user("al_x", "alx@example.com", "USER"));
+    }
+
+    @Test
+    void findPage_shouldSeekPastCursorInIdOrder() {
+        List<AppUserDTO> first = userRepository.findPage(0L, null, null, null, Limit.of(2));
+        List<AppUserDTO> second = userRepository.findPage(first.get(1).getId(), null, null, null, Limit.of(2));
+
+        assertEquals(List.of("alice", "albert"), first.stream().map(AppUserDTO::getUsername).toList());
+        assertEquals(List.of("bob", "al_x"), second.stream().map(AppUserDTO::getUsername).toList());
+    }
+
+    @Test
+    void findPage_shouldApplyFilters() {
+        List<AppUserDTO> users = userRepository.findPage(0L, "USER", "al%", "example.com", Limit.of(10));
+
+        assertEquals(List.of("al_x"), users.stream().map(AppUserDTO::getUsername).toList());
+    }
+
+    @Test
+    void findPage_shouldTreatEscapedWildcardsLiterally() {
+        List<AppUserDTO> users = userRepository.findPage(0L, null, "al\\_%", null, Limit.of(10));
+
+        assertEquals(List.of("al_x"), users.stream().map(AppUserDTO::getUsername).toList());
+    }
+
+    @Test
+    void findPage_shouldMatchEmailDomainIgnoringCase() {
+        userRepository.save(user("carol", "carol@Test.ORG", "USER"));
+
+        List<AppUserDTO> users = userRepository.findPage(0L, null, null, "TEST.org", Limit.of(10));
+
+        assertEquals(List.of("albert", "carol"), users.stream().map(AppUserDTO::getUsername).toList());
+    }
+
+    @Test
+    void findPage_shouldFollowEmailChanges() {
+        AppUser bob = userRepository.findByUsername("bob");
+        bob.setEmail("bob@test.org");
+        userRepository.saveAndFlush(bob);
+        userRepository.patch(alice.getId(), null, "alice@Test.org", null, now(), null);
+        entityManager.clear();
+
+        List<AppUserDTO> users = userRepository.findPage(0L, null, null, "test.org", Limit.of(10));
+
+        assertEquals(List.of("alice", "albert", "bob"), users.stream().map(AppUserDTO::getUsername).toList());
+        assertEquals(List.of("al_x"),
+                userRepository.findPage(0L, null, null, "example.com", Limit.of(10)).stream()
+                        .map(AppUserDTO::getUsername).toList());
+    }
+
+    @Test
+    void patch_shouldChangeOnlyGivenFieldsAndBumpVersion() {
+        long version = alice.getVersion();
+
+        int updated = userRepository.patch(alice.getId(), null, "alice@new.org", null, now(), version);
+        entityManager.clear();
+
+        assertEquals(1, updated);
+        AppUser patched = userRepository.findById(alice.getId()).orElseThrow();
+        assertEquals("alice", patched.getUsername());
+        assertEquals("alice@new.org", patched.getEmail());
+        assertEquals("ADMIN", patched.getRole());
+        assertEquals(version + 1, patched.getVersion());
+    }
+
+    @Test
+    void patch_shouldNotUpdateStaleVersion() {
+        long version = alice.getVersion();
+        userRepository.patch(alice.getId(), null, null, "USER", now(), version);
+
+        int updated = userRepository.patch(alice.getId(), null, null, "ADMIN", now(), version);
+        entityManager.clear();
+
+        assertEquals(0, updated);
+        assertEquals("USER", userRepository.findById(alice.getId()).orElseThrow().getRole());
+    }
+
+    @Test
+    void patch_withoutExpectedVersion_shouldUpdateUnconditionally() {
+        assertEquals(1, userRepository.patch(alice.getId(), "alicia", null, null, now(), null));
+        assertEquals(0, userRepository.patch(-1L, "nobody", null, null, now(), null));
+        entityManager.clear();
+
+        assertEquals(Optional.of("alicia"), userRepository.findUsernameById(alice.getId()));
+    }
+
+    @Test
+    void deleteUsersById_shouldReturnRowsDeleted() {
+        List<Long> ids = userRepository.findPage(0L, "USER", null, null, Limit.of(10)).stream()
+                .map(AppUserDTO::getId).toList();
+
+        int deleted = userRepository.deleteUsersById(List.of(ids.get(0), ids.get(1), -1L));
+
+        assertEquals(2, deleted);
+        assertEquals(2, userRepository.count());
+        assertEquals(1, userRepository.deleteUserById(alice.getId()));
+        assertEquals(0, userRepository.deleteUserById(alice.getId()));
+    }
+
+    private static Timestamp now() {
+        return Timestamp.from(Instant.now());
+    }
+
+    private static AppUser user(String username, String email, String role) {
+        AppUser user = new AppUser(username, "hash", role);
+        user.setEmail(email);
+        return user;
+    }
+}
@@ -0,0 +1,55 @@
+package com.test.usermanagementservice;
+
+import com.test.usermanagementservice.security.JwtKeyRing;
+import com.test.usermanagementservice.security.VerifiedTokenCache;
+import com.test.usermanagementservice.util.JwtUtil;
+import com.test.usermanagementservice.util.VerifiedToken;
+import io.jsonwebtoken.MalformedJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private final JwtUtil jwtUtil = new JwtUtil(
+            new JwtKeyRing("HS256", "954hYQHv3qTi+FxsSosy7AITQfrbpqBgFGmXpyyqRvo=", Duration.ofDays(1)),
+            Duration.ofMinutes(15), Duration.ofDays(7));
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new VerifiedTokenCache(100, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void get_shouldVerifyOnlyOncePerToken() {
+        String token = jwtUtil.generateToken("john", "ROLE_USER");
+        AtomicInteger verifications = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            VerifiedToken verified = cache.get(token, t -> {
+                verifications.incrementAndGet();
+                return jwtUtil.verify(t);
+            });
+            assertEquals("john", verified.subject());
+            assertEquals("ROLE_USER", verified.role());
+        }
+
+        assertEquals(1, verifications.get());
+        assertEquals(1, cache.missCount());
+        assertEquals(2, cache.hitCount());
+    }
+
+    @Test
+    void get_shouldNotCacheFailedVerification() {
+        assertThrows(MalformedJwtException.class, () -> cache.get("not-a-jwt", jwtUtil::verify));
+        assertThrows(MalformedJwtException.class, () -> cache.get("not-a-jwt", jwtUtil::verify));
+
+        assertEquals(0, cache.size());
+    }
+}